@@ -0,0 +1,15 @@
+package io.github.nahomgh.portfolio.config;
+
+import java.util.Collection;
+import java.util.Map;
+
+/*
+    Multi-key reads and writes for caches that can batch them into a single round trip.
+ */
+public interface BulkCache {
+
+    // Only keys with a cached value appear in the result.
+    Map<String, Object> getAll(Collection<String> keys);
+
+    void putAll(Map<String, ?> entries);
+}
@@ -0,0 +1,135 @@
+package io.github.nahomgh.portfolio.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nahomgh.portfolio.event.CacheInvalidatedEvent;
+import io.github.nahomgh.portfolio.event.HoldingsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Redis pub/sub channel that tells every other node which cache keys were written or evicted, so
+    their near tiers never serve a value that has changed elsewhere for longer than the flush interval.
+    Keys are collected per cache and flushed in batches, keeping Redis off the write path.
+
+    Holding changes travel on the same channel under the "holdings" name (keys are user ids), for
+    in-process state derived from holdings.
+ */
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "portfolio:cache-invalidation";
+    public static final String HOLDINGS = "holdings";
+
+    private static final int MAX_KEYS_PER_MESSAGE = 1000;
+
+    record CacheInvalidationMessage(String origin, String cache, List<String> keys) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // A cache name mapped to null means the whole cache was cleared.
+    private final Map<String, Set<String>> pendingKeys = new ConcurrentHashMap<>();
+    private final Set<String> pendingClears = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-invalidation-flusher").daemon().factory());
+
+    private volatile TieredCacheManager localCaches;
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher, Duration flushInterval) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void setLocalCaches(TieredCacheManager localCaches) {
+        this.localCaches = localCaches;
+    }
+
+    public void publish(String cacheName, Object key) {
+        pendingKeys.computeIfAbsent(cacheName, name -> ConcurrentHashMap.newKeySet()).add(String.valueOf(key));
+    }
+
+    public void publishClear(String cacheName) {
+        pendingClears.add(cacheName);
+    }
+
+    // Relayed once the transaction that changed the holding has committed.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        publish(HOLDINGS, event.userId());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(invalidation.origin()))
+            return;
+
+        TieredCacheManager caches = localCaches;
+        if (caches != null)
+            caches.evictLocal(invalidation.cache(), invalidation.keys());
+        eventPublisher.publishEvent(new CacheInvalidatedEvent(invalidation.cache(), invalidation.keys()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+
+    private void flush() {
+        try {
+            for (String cacheName : List.copyOf(pendingClears)) {
+                pendingClears.remove(cacheName);
+                pendingKeys.remove(cacheName);
+                send(new CacheInvalidationMessage(nodeId, cacheName, null));
+            }
+            for (String cacheName : List.copyOf(pendingKeys.keySet())) {
+                Set<String> keys = pendingKeys.remove(cacheName);
+                if (keys == null || keys.isEmpty())
+                    continue;
+                List<String> keyList = List.copyOf(keys);
+                for (int from = 0; from < keyList.size(); from += MAX_KEYS_PER_MESSAGE)
+                    send(new CacheInvalidationMessage(nodeId, cacheName,
+                            keyList.subList(from, Math.min(from + MAX_KEYS_PER_MESSAGE, keyList.size()))));
+            }
+        } catch (RuntimeException e) {
+            // Dropped invalidations are bounded by the near tier TTL.
+            logger.warn("Cache invalidation publish failed: {}", e.getMessage());
+        }
+    }
+
+    private void send(CacheInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(message));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
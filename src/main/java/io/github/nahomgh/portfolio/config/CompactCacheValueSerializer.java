@@ -0,0 +1,119 @@
+package io.github.nahomgh.portfolio.config;
+
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/*
+    Binary encoding for the hot cache values. Every value starts with a two-byte header (magic, format
+    version) followed by a type tag:
+
+        BigDecimal     tag 1 | scale int | unscaled length byte | unscaled two's-complement bytes
+        PriceQuoteDTO  tag 2 | <BigDecimal body> | asOf epoch seconds long | asOf nanos int
+
+    Anything else is written as tag 0 followed by the fallback serializer's JSON. Entries written before
+    this codec existed have no header (they start with JSON text) and are read with the fallback, so
+    the cache does not need flushing on deploy.
+ */
+public class CompactCacheValueSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte VERSION = 1;
+
+    private static final byte TYPE_FALLBACK = 0;
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_PRICE_QUOTE = 2;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private final RedisSerializer<Object> fallback;
+
+    public CompactCacheValueSerializer(RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null)
+            return null;
+        if (value instanceof BigDecimal decimal && fitsCompact(decimal)) {
+            byte[] unscaled = decimal.unscaledValue().toByteArray();
+            ByteBuffer buffer = header(TYPE_DECIMAL, decimalLength(unscaled));
+            writeDecimal(buffer, decimal.scale(), unscaled);
+            return buffer.array();
+        }
+        if (value instanceof PriceQuoteDTO quote && quote.price() != null && quote.asOf() != null
+                && fitsCompact(quote.price())) {
+            byte[] unscaled = quote.price().unscaledValue().toByteArray();
+            ByteBuffer buffer = header(TYPE_PRICE_QUOTE, decimalLength(unscaled) + Long.BYTES + Integer.BYTES);
+            writeDecimal(buffer, quote.price().scale(), unscaled);
+            buffer.putLong(quote.asOf().getEpochSecond());
+            buffer.putInt(quote.asOf().getNano());
+            return buffer.array();
+        }
+        byte[] json = fallback.serialize(value);
+        ByteBuffer buffer = header(TYPE_FALLBACK, json.length);
+        buffer.put(json);
+        return buffer.array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0)
+            return null;
+        if (bytes[0] != MAGIC)
+            return fallback.deserialize(bytes); // Written before the compact codec.
+        if (bytes.length < HEADER_LENGTH || bytes[1] != VERSION)
+            throw new SerializationException("Unsupported cache value format version " + (bytes.length > 1 ? bytes[1] : -1));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        try {
+            return switch (bytes[2]) {
+                case TYPE_DECIMAL -> readDecimal(buffer);
+                case TYPE_PRICE_QUOTE -> new PriceQuoteDTO(readDecimal(buffer),
+                        Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()));
+                case TYPE_FALLBACK -> {
+                    byte[] json = new byte[buffer.remaining()];
+                    buffer.get(json);
+                    yield fallback.deserialize(json);
+                }
+                default -> throw new SerializationException("Unknown cache value type " + bytes[2]);
+            };
+        } catch (RuntimeException e) {
+            if (e instanceof SerializationException serializationException)
+                throw serializationException;
+            throw new SerializationException("Corrupt cache value", e);
+        }
+    }
+
+    private static ByteBuffer header(byte type, int bodyLength) {
+        return ByteBuffer.allocate(HEADER_LENGTH + bodyLength).put(MAGIC).put(VERSION).put(type);
+    }
+
+    // The unscaled length is a single byte; anything wider goes through the fallback.
+    private static boolean fitsCompact(BigDecimal decimal) {
+        return decimal.unscaledValue().bitLength() < 255 * 8;
+    }
+
+    private static int decimalLength(byte[] unscaled) {
+        return Integer.BYTES + 1 + unscaled.length;
+    }
+
+    private static void writeDecimal(ByteBuffer buffer, int scale, byte[] unscaled) {
+        buffer.putInt(scale);
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer buffer) {
+        int scale = buffer.getInt();
+        byte[] unscaled = new byte[Byte.toUnsignedInt(buffer.get())];
+        buffer.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
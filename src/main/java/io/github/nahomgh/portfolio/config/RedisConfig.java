@@ -1,7 +1,11 @@
 package io.github.nahomgh.portfolio.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
@@ -9,6 +13,9 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -24,6 +31,15 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int portNumber;
 
+    @Value("${cache.near.ttl:10s}")
+    private Duration nearCacheTtl;
+
+    @Value("${cache.near.max-size:1000}")
+    private long nearCacheMaxSize;
+
+    @Value("${cache.invalidation.flush-interval:50ms}")
+    private Duration invalidationFlushInterval;
+
     @Bean
     public RedisConnectionFactory redisConnectionFactory() {
         LettuceConnectionFactory factory = new LettuceConnectionFactory(
@@ -33,16 +49,38 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory){
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                                     ApplicationEventPublisher eventPublisher){
+        return new CacheInvalidationBus(redisTemplate, objectMapper, eventPublisher, invalidationFlushInterval);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            CacheInvalidationBus invalidationBus){
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationBus, new ChannelTopic(CacheInvalidationBus.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public TieredCacheManager cacheManager(RedisConnectionFactory connectionFactory, CacheInvalidationBus invalidationBus,
+                                           MeterRegistry meterRegistry){
        RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(5))
                 .disableCachingNullValues()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new CompactCacheValueSerializer(
+                        new GenericJackson2JsonRedisSerializer()
+                                .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule())))));
 
-       return RedisCacheManager
+       RedisCacheManager redisCacheManager = RedisCacheManager
                .builder(connectionFactory)
                .cacheDefaults(cacheConfiguration)
                .build();
+       redisCacheManager.initializeCaches();
+
+       // Short-lived in-process tier in front of Redis so hot prices are served from heap.
+       return new TieredCacheManager(redisCacheManager, connectionFactory, nearCacheTtl, nearCacheMaxSize, invalidationBus, meterRegistry);
     }
 
 }
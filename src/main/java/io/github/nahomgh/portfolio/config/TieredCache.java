@@ -0,0 +1,266 @@
+package io.github.nahomgh.portfolio.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+
+/*
+    Two-tier cache: a bounded in-process Caffeine (W-TinyLFU) tier with a short TTL in front of the
+    shared Redis cache. Reads are served from heap when possible and only fall through to Redis on a
+    near-tier miss. Writes and evictions always go to both tiers so Redis stays the source of truth,
+    and are announced on the invalidation bus so other nodes drop their near copies.
+
+    Bulk reads and writes go to Redis as one MGET / one pipeline of SET PX commands, using the remote
+    cache's own key prefix, value serializer and TTL so entries are interchangeable with single puts.
+ */
+public class TieredCache implements Cache, BulkCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> nearCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisConnectionFactory connectionFactory;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public TieredCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> nearCache,
+                       Cache remoteCache, RedisConnectionFactory connectionFactory,
+                       CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.nearCache = nearCache;
+        this.remoteCache = remoteCache;
+        this.connectionFactory = connectionFactory;
+        this.invalidationBus = invalidationBus;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, name, "tier", "near");
+        this.remoteHits = Counter.builder("cache.gets")
+                .tags("cache", name, "tier", "remote", "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("cache.gets")
+                .tags("cache", name, "tier", "remote", "result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached value.")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this.remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object nearValue = nearCache.getIfPresent(key);
+        if (nearValue != null)
+            return new SimpleValueWrapper(nearValue);
+
+        ValueWrapper remoteValue = remoteCache.get(key);
+        if (remoteValue == null || remoteValue.get() == null) {
+            remoteMisses.increment();
+            return remoteValue;
+        }
+        remoteHits.increment();
+        nearCache.put(key, remoteValue.get());
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object nearValue = nearCache.getIfPresent(key);
+        if (nearValue != null)
+            return (T) nearValue;
+
+        boolean[] loaded = new boolean[1];
+        T value = remoteCache.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        if (loaded[0]) {
+            remoteMisses.increment();
+            invalidationBus.publish(name, key);
+        } else
+            remoteHits.increment();
+
+        if (value != null)
+            nearCache.put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        if (value != null)
+            nearCache.put(key, value);
+        else
+            nearCache.invalidate(key);
+        invalidationBus.publish(name, key);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        nearCache.invalidate(key);
+        if (existing == null)
+            invalidationBus.publish(name, key);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        nearCache.invalidate(key);
+        invalidationBus.publish(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = remoteCache.evictIfPresent(key);
+        nearCache.invalidate(key);
+        invalidationBus.publish(name, key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        nearCache.invalidateAll();
+        invalidationBus.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = remoteCache.invalidate();
+        nearCache.invalidateAll();
+        invalidationBus.publishClear(name);
+        return invalidated;
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> values = new HashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String key : keys) {
+            Object nearValue = nearCache.getIfPresent(key);
+            if (nearValue != null)
+                values.put(key, nearValue);
+            else
+                remoteKeys.add(key);
+        }
+        if (remoteKeys.isEmpty())
+            return values;
+
+        List<Object> remoteValues = remoteGetAll(remoteKeys);
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            Object value = remoteValues.get(i);
+            if (value == null) {
+                remoteMisses.increment();
+                continue;
+            }
+            remoteHits.increment();
+            nearCache.put(remoteKeys.get(i), value);
+            values.put(remoteKeys.get(i), value);
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<String, ?> entries) {
+        if (entries.isEmpty())
+            return;
+        if (!(remoteCache instanceof RedisCache redisCache)) {
+            entries.forEach(this::put);
+            return;
+        }
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.openPipeline();
+            entries.forEach((key, value) -> {
+                if (value == null)
+                    return;
+                Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+                connection.stringCommands().set(redisKey(configuration, key), redisValue(configuration, value),
+                        ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                        RedisStringCommands.SetOption.upsert());
+            });
+            connection.closePipeline();
+        }
+        entries.forEach((key, value) -> {
+            if (value != null)
+                nearCache.put(key, value);
+            else
+                nearCache.invalidate(key);
+            invalidationBus.publish(name, key);
+        });
+    }
+
+    private List<Object> remoteGetAll(List<String> keys) {
+        List<Object> values = new ArrayList<>(keys.size());
+        if (!(remoteCache instanceof RedisCache redisCache)) {
+            for (String key : keys) {
+                ValueWrapper wrapper = remoteCache.get(key);
+                values.add(wrapper != null ? wrapper.get() : null);
+            }
+            return values;
+        }
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        byte[][] redisKeys = keys.stream().map(key -> redisKey(configuration, key)).toArray(byte[][]::new);
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(redisKeys);
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] raw = rawValues != null ? rawValues.get(i) : null;
+            values.add(raw != null ? configuration.getValueSerializationPair().read(ByteBuffer.wrap(raw)) : null);
+        }
+        return values;
+    }
+
+    private byte[] redisKey(RedisCacheConfiguration configuration, String key) {
+        String prefixedKey = configuration.usePrefix() ? configuration.getKeyPrefixFor(name) + key : key;
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(prefixedKey));
+    }
+
+    private static byte[] redisValue(RedisCacheConfiguration configuration, Object value) {
+        return ByteUtils.getBytes(configuration.getValueSerializationPair().write(value));
+    }
+
+    // Drops near-tier copies only; used when another node reports the keys changed in Redis.
+    void evictLocal(Collection<String> keys) {
+        if (keys == null)
+            nearCache.invalidateAll();
+        else
+            nearCache.invalidateAll(keys);
+    }
+}
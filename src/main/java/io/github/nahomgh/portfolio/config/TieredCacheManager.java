@@ -0,0 +1,74 @@
+package io.github.nahomgh.portfolio.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+    Wraps the RedisCacheManager so every cache it hands out is a TieredCache with its own
+    bounded near tier. Near tiers share the same TTL and size limit.
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final CacheManager remoteCacheManager;
+    private final Duration nearCacheTtl;
+    private final long nearCacheMaxSize;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisConnectionFactory connectionFactory;
+
+    private final ConcurrentMap<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager remoteCacheManager, RedisConnectionFactory connectionFactory,
+                              Duration nearCacheTtl, long nearCacheMaxSize,
+                              CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.connectionFactory = connectionFactory;
+        this.nearCacheTtl = nearCacheTtl;
+        this.nearCacheMaxSize = nearCacheMaxSize;
+        this.meterRegistry = meterRegistry;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.setLocalCaches(this);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TieredCache cache = caches.get(name);
+        if (cache != null)
+            return cache;
+
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null)
+            return null;
+        return caches.computeIfAbsent(name, cacheName -> new TieredCache(cacheName,
+                Caffeine.newBuilder()
+                        .maximumSize(nearCacheMaxSize)
+                        .expireAfterWrite(nearCacheTtl)
+                        .recordStats()
+                        .build(),
+                remoteCache,
+                connectionFactory,
+                invalidationBus,
+                meterRegistry));
+    }
+
+    // Only caches already in use on this node have near copies to drop.
+    void evictLocal(String cacheName, Collection<String> keys) {
+        TieredCache cache = caches.get(cacheName);
+        if (cache != null)
+            cache.evictLocal(keys);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+}
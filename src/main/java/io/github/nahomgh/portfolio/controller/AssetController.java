@@ -1,9 +1,26 @@
 package io.github.nahomgh.portfolio.controller;
 
+import io.github.nahomgh.portfolio.auth.domain.User;
+import io.github.nahomgh.portfolio.dto.AssetSummaryDTO;
+import io.github.nahomgh.portfolio.dto.HistoricalBackfillJobDTO;
+import io.github.nahomgh.portfolio.dto.HistoricalBackfillRequest;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.exceptions.InputValidationException;
+import io.github.nahomgh.portfolio.service.AssetIndexService;
+import io.github.nahomgh.portfolio.service.HistoricalBackfillService;
 import io.github.nahomgh.portfolio.service.PriceDataService;
+import io.github.nahomgh.portfolio.service.PriceStreamService;
+import io.github.nahomgh.portfolio.service.PriceTickHistory;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -12,15 +29,79 @@ public class AssetController {
 
     private final PriceDataService priceDataService;
 
-    public AssetController(PriceDataService priceDataService){
+    private final PriceTickHistory priceTickHistory;
+
+    private final PriceStreamService priceStreamService;
+
+    private final AssetIndexService assetIndexService;
+
+    private final HistoricalBackfillService historicalBackfillService;
+
+    private static final int MAX_STREAMED_ASSETS = 50;
+
+    private static final int MAX_SEARCH_RESULTS = 50;
+
+    public AssetController(PriceDataService priceDataService, PriceTickHistory priceTickHistory,
+                           PriceStreamService priceStreamService, AssetIndexService assetIndexService,
+                           HistoricalBackfillService historicalBackfillService){
         this.priceDataService = priceDataService;
+        this.priceTickHistory = priceTickHistory;
+        this.priceStreamService = priceStreamService;
+        this.assetIndexService = assetIndexService;
+        this.historicalBackfillService = historicalBackfillService;
+    }
+
+    // Preloads historical prices for a batch of backdated trades; poll the returned job for progress.
+    @PostMapping("backfill")
+    public ResponseEntity<HistoricalBackfillJobDTO> startHistoricalBackfill(@Valid @RequestBody HistoricalBackfillRequest backfillRequest,
+                                                                            Authentication authentication){
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(historicalBackfillService.startBackfill(user.getId(), backfillRequest.datesByAsset()));
+    }
+
+    @GetMapping("backfill/{jobId}")
+    public ResponseEntity<HistoricalBackfillJobDTO> getHistoricalBackfill(@PathVariable String jobId, Authentication authentication){
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(historicalBackfillService.getJob(user.getId(), jobId));
+    }
+
+    // Searches the local asset index by symbol or name prefix, e.g. GET /api/v1/prices/search?q=eth
+    @GetMapping("search")
+    public ResponseEntity<List<AssetSummaryDTO>> searchAssets(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "10") int limit){
+        if(q.isBlank() || limit < 1 || limit > MAX_SEARCH_RESULTS)
+            throw new InputValidationException("Provide a search term and a limit between 1 and " + MAX_SEARCH_RESULTS);
+        return ResponseEntity.ok(assetIndexService.search(q, limit));
+    }
+
+    // Server-sent events stream of price changes, e.g. GET /api/v1/prices/stream?assets=bitcoin,ethereum
+    @GetMapping(path = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam List<String> assets){
+        if(assets.isEmpty() || assets.size() > MAX_STREAMED_ASSETS)
+            throw new InputValidationException("Subscribe to between 1 and " + MAX_STREAMED_ASSETS + " assets");
+        // Tickers such as BTC are resolved to the provider ids that price updates are keyed by.
+        return priceStreamService.subscribe(assets.stream().map(priceDataService::resolveAssetSymbol).toList());
     }
 
     @GetMapping("{assetName}")
     public ResponseEntity<Map<String, Object>> getAssetPrices(@PathVariable String assetName){
+        PriceQuoteDTO quote = priceDataService.getAssetQuote(assetName);
+        return ResponseEntity.ok(Map.of(
+                "asset",assetName,
+                "totalCost",quote.price(),
+                "currency","USD",
+                "asOf",quote.asOf(),
+                "priceAgeSeconds",quote.ageSeconds()));
+    }
+
+    @GetMapping("{assetName}/history")
+    public ResponseEntity<Map<String, Object>> getRecentPriceHistory(@PathVariable String assetName,
+                                                                     @RequestParam(defaultValue = "24") int hours){
+        if(hours < 1 || hours > 24)
+            throw new InputValidationException("History window must be between 1 and 24 hours");
         return ResponseEntity.ok(Map.of(
                 "asset",assetName,
-                "totalCost",priceDataService.getAssetPrice(assetName),
-                "currency","USD"));
+                "currency","USD",
+                "ticks",priceTickHistory.getTicks(assetName, Duration.ofHours(hours))));
     }
 }
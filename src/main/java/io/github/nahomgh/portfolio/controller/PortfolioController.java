@@ -2,6 +2,7 @@ package io.github.nahomgh.portfolio.controller;
 
 import io.github.nahomgh.portfolio.auth.domain.User;
 import io.github.nahomgh.portfolio.dto.PortfolioDTO;
+import io.github.nahomgh.portfolio.dto.PortfolioSummaryDTO;
 import io.github.nahomgh.portfolio.service.PortfolioService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -28,5 +29,11 @@ public class PortfolioController {
         User user = (User) authentication.getPrincipal();
         return ResponseEntity.status(HttpStatus.OK).body(portfolioService.getPortfolio(user.getId()));
     }
+
+    @GetMapping("summary")
+    public ResponseEntity<PortfolioSummaryDTO> getPortfolioSummary(Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.status(HttpStatus.OK).body(portfolioService.getPortfolioSummary(user.getId()));
+    }
 }
 
@@ -2,10 +2,13 @@ package io.github.nahomgh.portfolio.controller;
 
 import io.github.nahomgh.portfolio.auth.domain.User;
 import io.github.nahomgh.portfolio.dto.TransactionDTO;
+import io.github.nahomgh.portfolio.dto.TransactionWindowDTO;
 import io.github.nahomgh.portfolio.entity.TransactionRequest;
 import io.github.nahomgh.portfolio.exceptions.DuplicateTransactionException;
 import io.github.nahomgh.portfolio.exceptions.IdempotencyKeyConflictException;
+import io.github.nahomgh.portfolio.exceptions.InputValidationException;
 import io.github.nahomgh.portfolio.exceptions.MissingKeyException;
+import io.github.nahomgh.portfolio.service.TransactionExportService;
 import io.github.nahomgh.portfolio.service.TransactionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -14,11 +17,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -29,9 +36,13 @@ import java.util.Map;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
 
-    public TransactionController(TransactionService transactionService) {
+    private static final int MAX_SCROLL_SIZE = 100;
+
+    public TransactionController(TransactionService transactionService, TransactionExportService transactionExportService) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
     }
 
     @GetMapping
@@ -48,6 +59,41 @@ public class TransactionController {
         return ResponseEntity.ok().body(transactionService.getTransactions(user.getId(), pageable));
     }
 
+    @GetMapping("scroll")
+    public ResponseEntity<TransactionWindowDTO> scrollUserTransactions(Authentication authentication,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "20") int size,
+                                                                       @RequestParam(defaultValue = "desc") String sort){
+        if(size < 1 || size > MAX_SCROLL_SIZE)
+            throw new InputValidationException("Size must be between 1 and " + MAX_SCROLL_SIZE);
+        User user = (User) authentication.getPrincipal();
+        Sort.Direction direction = sort.equalsIgnoreCase("desc") || sort.equalsIgnoreCase("descending") ?
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        return ResponseEntity.ok().body(transactionService.scrollTransactions(user.getId(), cursor, size, direction));
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(Authentication authentication,
+                                                                        @RequestParam(defaultValue = "csv") String format,
+                                                                        @RequestParam(defaultValue = "false") boolean gzip){
+        TransactionExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = TransactionExportService.ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InputValidationException("Export format must be csv or ndjson");
+        }
+        User user = (User) authentication.getPrincipal();
+        Long userId = user.getId();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(exportFormat.contentType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename("transactions." + exportFormat.fileExtension()).build());
+        if(gzip)
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        StreamingResponseBody body = outputStream -> transactionExportService.export(userId, exportFormat, gzip, outputStream);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
     @PostMapping
     public ResponseEntity<?> createTransaction(HttpServletRequest request, @Valid @RequestBody TransactionRequest transactionRequest, Authentication authentication){
         try {
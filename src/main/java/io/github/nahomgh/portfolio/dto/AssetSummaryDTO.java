@@ -0,0 +1,4 @@
+package io.github.nahomgh.portfolio.dto;
+
+public record AssetSummaryDTO(String id, String symbol, String name) {
+}
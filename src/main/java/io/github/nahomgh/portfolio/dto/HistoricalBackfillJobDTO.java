@@ -0,0 +1,9 @@
+package io.github.nahomgh.portfolio.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record HistoricalBackfillJobDTO(String jobId, String status, int totalAssets, int completedAssets,
+                                       int pricesStored, int providerCalls, List<String> failedAssets,
+                                       Instant startedAt, Instant finishedAt) {
+}
@@ -0,0 +1,15 @@
+package io.github.nahomgh.portfolio.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+// Dates needed per asset, e.g. {"datesByAsset": {"bitcoin": ["2025-01-03", "2025-02-14"]}}
+public record HistoricalBackfillRequest(
+        @NotEmpty(message = "At least one asset is required")
+        @Size(max = 50, message = "At most 50 assets per backfill")
+        Map<String, Set<LocalDate>> datesByAsset) {
+}
@@ -0,0 +1,6 @@
+package io.github.nahomgh.portfolio.dto;
+
+import java.math.BigDecimal;
+
+public record HoldingPositionDTO(String asset, BigDecimal units, BigDecimal totalCostBasis) {
+}
@@ -3,16 +3,19 @@ package io.github.nahomgh.portfolio.dto;
 import io.github.nahomgh.portfolio.entity.Holding;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 public record PortfolioDTO(BigDecimal totalInvested,
                            BigDecimal totalValuation,
                            BigDecimal currentPnl,
-                           List<HoldingDTO> holdings){
+                           List<HoldingDTO> holdings,
+                           Instant pricesAsOf,
+                           Long priceAgeSeconds){
 
     public PortfolioDTO(BigDecimal totalInvested, BigDecimal totalValuation, BigDecimal currentPnl) {
-       this(totalInvested, totalValuation, currentPnl, new ArrayList<>());
+       this(totalInvested, totalValuation, currentPnl, new ArrayList<>(), null, null);
     }
 
 
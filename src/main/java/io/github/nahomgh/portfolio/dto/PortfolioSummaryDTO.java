@@ -0,0 +1,10 @@
+package io.github.nahomgh.portfolio.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PortfolioSummaryDTO(BigDecimal totalInvested,
+                                  BigDecimal totalValuation,
+                                  BigDecimal currentPnl,
+                                  Instant lastUpdated) {
+}
@@ -0,0 +1,12 @@
+package io.github.nahomgh.portfolio.dto;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+public record PriceQuoteDTO(BigDecimal price, Instant asOf) {
+
+    public long ageSeconds() {
+        return Math.max(0, Duration.between(asOf, Instant.now()).getSeconds());
+    }
+}
@@ -0,0 +1,6 @@
+package io.github.nahomgh.portfolio.dto;
+
+import java.time.Instant;
+
+public record PriceTickDTO(Instant timestamp, double price) {
+}
@@ -0,0 +1,6 @@
+package io.github.nahomgh.portfolio.dto;
+
+import java.util.List;
+
+public record TransactionWindowDTO(List<TransactionDTO> transactions, String nextCursor, boolean hasNext) {
+}
@@ -0,0 +1,50 @@
+package io.github.nahomgh.portfolio.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "historical_prices")
+public class HistoricalPrice {
+
+    @EmbeddedId
+    private HistoricalPriceId id;
+
+    @Column(name = "price_usd", nullable = false, updatable = false, precision = 38, scale = 8)
+    private BigDecimal priceUsd;
+
+    @Column(name = "fetched_at", nullable = false, updatable = false)
+    private Instant fetchedAt;
+
+    public HistoricalPrice() {
+    }
+
+    public HistoricalPrice(HistoricalPriceId id, BigDecimal priceUsd, Instant fetchedAt) {
+        this.id = id;
+        this.priceUsd = priceUsd;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public HistoricalPriceId getId() {
+        return id;
+    }
+
+    public BigDecimal getPriceUsd() {
+        return priceUsd;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoricalPrice{" +
+                "id=" + id +
+                ", priceUsd=" + priceUsd +
+                ", fetchedAt=" + fetchedAt +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.nahomgh.portfolio.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class HistoricalPriceId implements Serializable {
+
+    @Column(name = "asset", nullable = false, length = 128)
+    private String asset;
+
+    @Column(name = "price_date", nullable = false)
+    private LocalDate priceDate;
+
+    public HistoricalPriceId() {
+    }
+
+    public HistoricalPriceId(String asset, LocalDate priceDate) {
+        this.asset = asset;
+        this.priceDate = priceDate;
+    }
+
+    public String getAsset() {
+        return asset;
+    }
+
+    public LocalDate getPriceDate() {
+        return priceDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HistoricalPriceId that)) return false;
+        return Objects.equals(asset, that.asset) && Objects.equals(priceDate, that.priceDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(asset, priceDate);
+    }
+
+    @Override
+    public String toString() {
+        return "HistoricalPriceId{" +
+                "asset='" + asset + '\'' +
+                ", priceDate=" + priceDate +
+                '}';
+    }
+}
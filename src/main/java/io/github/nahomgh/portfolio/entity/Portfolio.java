@@ -10,7 +10,7 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "portfolios",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"portfolioType", "user_id"}),
+        uniqueConstraints = @UniqueConstraint(columnNames = {"portfolio_type", "user_id"}),
         indexes = {
                 @Index(name="idx_portfolio_user_id", columnList = "user_id")
         }
@@ -28,6 +28,10 @@ public class Portfolio {
     @ToString.Exclude
     private User user;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name="portfolio_type")
+    private PortfolioType portfolioType;
+
     @Column(name="created_at", nullable = false,updatable = false)
     private Instant createdAt;
 
@@ -49,6 +53,7 @@ public class Portfolio {
         return "Portfolio{" +
                 "id=" + id +
                 ", user=" + user +
+                ", portfolioType=" + portfolioType +
                 ", createdAt=" + createdAt +
                 ", totalInvested=" + totalInvested +
                 ", totalValuation=" + totalValuation +
@@ -0,0 +1,7 @@
+package io.github.nahomgh.portfolio.entity;
+
+public enum PortfolioType {
+    MAIN_PORTFOLIO,
+    RETIREMENT,
+    HIGH_RISK_PORTFOLIO
+}
@@ -0,0 +1,10 @@
+package io.github.nahomgh.portfolio.event;
+
+import java.util.List;
+
+/*
+    Published on a node when another node reports that entries of a cache have changed. The local near
+    tier has already been evicted by the time listeners see it; a null key list means the whole cache.
+ */
+public record CacheInvalidatedEvent(String cacheName, List<String> keys) {
+}
@@ -0,0 +1,7 @@
+package io.github.nahomgh.portfolio.event;
+
+/*
+    Published by ProcessTransactionsService whenever a transaction changes a user's holding of an asset.
+ */
+public record HoldingsChangedEvent(Long userId, String asset) {
+}
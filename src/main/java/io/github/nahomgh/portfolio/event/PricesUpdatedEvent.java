@@ -0,0 +1,12 @@
+package io.github.nahomgh.portfolio.event;
+
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+
+import java.util.Map;
+
+/*
+    Published by PriceDataService whenever fresh prices have been fetched from the provider
+    and written to the price cache.
+ */
+public record PricesUpdatedEvent(Map<String, PriceQuoteDTO> quotes) {
+}
@@ -0,0 +1,7 @@
+package io.github.nahomgh.portfolio.exceptions;
+
+public class BackfillLimitExceededException extends RuntimeException{
+    public BackfillLimitExceededException(String message) {
+        super(message);
+    }
+}
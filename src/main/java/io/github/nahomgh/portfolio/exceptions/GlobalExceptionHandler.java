@@ -55,6 +55,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(priceUnavailableException.getMessage()));
     }
 
+    @ExceptionHandler(BackfillLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleBackfillLimitExceededException(BackfillLimitExceededException backfillLimitExceededException){
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new ErrorResponse(backfillLimitExceededException.getMessage()));
+    }
+
     @ExceptionHandler(UnsupportedAssetException.class)
     @ResponseBody
     public ResponseEntity<ErrorResponse> handleUnsupportedAssetException(UnsupportedAssetException unsupportedAssetException){
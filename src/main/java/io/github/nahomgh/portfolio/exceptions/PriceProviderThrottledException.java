@@ -0,0 +1,10 @@
+package io.github.nahomgh.portfolio.exceptions;
+
+public class PriceProviderThrottledException extends PriceUnavailableException {
+    public PriceProviderThrottledException(){
+
+    }
+    public PriceProviderThrottledException(String message){
+        super(message);
+    }
+}
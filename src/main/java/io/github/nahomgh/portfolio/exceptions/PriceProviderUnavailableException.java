@@ -0,0 +1,10 @@
+package io.github.nahomgh.portfolio.exceptions;
+
+public class PriceProviderUnavailableException extends PriceUnavailableException {
+    public PriceProviderUnavailableException(){
+
+    }
+    public PriceProviderUnavailableException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.nahomgh.portfolio.repository;
+
+import io.github.nahomgh.portfolio.entity.HistoricalPrice;
+import io.github.nahomgh.portfolio.entity.HistoricalPriceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Repository
+public interface HistoricalPriceRepository extends JpaRepository<HistoricalPrice, HistoricalPriceId> {
+
+    // Runs in its own transaction so a stored price survives a rollback of the transaction that requested it.
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO historical_prices (asset, price_date, price_usd, fetched_at) " +
+            "VALUES (:asset, :priceDate, :priceUsd, :fetchedAt) " +
+            "ON CONFLICT (asset, price_date) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("asset") String asset, @Param("priceDate") LocalDate priceDate,
+                       @Param("priceUsd") BigDecimal priceUsd, @Param("fetchedAt") Instant fetchedAt);
+}
@@ -1,10 +1,13 @@
 package io.github.nahomgh.portfolio.repository;
 
+import io.github.nahomgh.portfolio.dto.HoldingPositionDTO;
 import io.github.nahomgh.portfolio.entity.Holding;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +18,14 @@ public interface HoldingRepository extends JpaRepository<Holding, Long> {
     Optional<Holding> findByAssetAndUser_Id(String assetName, Long userId);
     List<Holding> findAllByUser_id(Long user_id);
 
+    // Just the columns valuation needs: no managed entities, User proxies or dirty checking, and read-only
+    // so Hibernate skips the flush before the query.
+    @Transactional(readOnly = true)
+    @Query("SELECT new io.github.nahomgh.portfolio.dto.HoldingPositionDTO(h.asset, h.units, h.totalCostBasis) " +
+            "FROM Holding h WHERE h.user.id = :userId ORDER BY h.asset")
+    List<HoldingPositionDTO> findPositionsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT h.asset FROM Holding h")
+    List<String> findDistinctAssets();
+
 }
@@ -0,0 +1,14 @@
+package io.github.nahomgh.portfolio.repository;
+
+import io.github.nahomgh.portfolio.entity.Portfolio;
+import io.github.nahomgh.portfolio.entity.PortfolioType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
+
+    Optional<Portfolio> findByUser_IdAndPortfolioType(Long userId, PortfolioType portfolioType);
+}
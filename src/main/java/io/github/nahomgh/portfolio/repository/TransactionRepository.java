@@ -1,13 +1,24 @@
 package io.github.nahomgh.portfolio.repository;
 
+import io.github.nahomgh.portfolio.dto.TransactionDTO;
 import io.github.nahomgh.portfolio.entity.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -16,6 +27,16 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     Page<Transaction> findTransactionsByUserId(Long userId, Pageable pageable);
 
+    // Keyset scrolling: seeks past the position's (transactionTimestamp, id) and fetches limit + 1 rows, no count query.
+    Window<Transaction> findByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Forward-only stream of DTOs for exports; must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new io.github.nahomgh.portfolio.dto.TransactionDTO(t.asset, t.transactionType, t.units, t.totalCost, " +
+            "t.pricePerUnit, t.transactionTimestamp) FROM Transaction t WHERE t.user.id = :userId " +
+            "ORDER BY t.transactionTimestamp, t.id")
+    Stream<TransactionDTO> streamByUserId(@Param("userId") Long userId);
+
     Optional<Transaction> findTransactionByUserIdAndClientIdempotencyKey(Long userId, String externalTxnId);
 
 }
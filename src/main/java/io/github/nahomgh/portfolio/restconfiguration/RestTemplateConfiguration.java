@@ -1,17 +1,57 @@
 package io.github.nahomgh.portfolio.restconfiguration;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class RestTemplateConfiguration {
 
+    // 'pooled' (Apache HttpClient 5 with an explicit connection pool) or 'jdk' (JDK HttpClient, HTTP/2 on virtual threads)
+    @Value("${price-provider.client:pooled}")
+    private String priceProviderClient;
+
+    @Value("${price-provider.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${price-provider.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${price-provider.pool.max-total:50}")
+    private int maxTotalConnections;
+
+    @Value("${price-provider.pool.max-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${price-provider.pool.acquire-timeout:2s}")
+    private Duration connectionAcquireTimeout;
+
+    @Value("${price-provider.pool.keep-alive:30s}")
+    private Duration keepAlive;
+
+    @Value("${price-provider.pool.connection-ttl:5m}")
+    private Duration connectionTimeToLive;
+
     @Bean // Injected into the Spring container - i.e. gives us access to the restTemplate throughout the application.
     public RestTemplate restTemplate(){
         var requestFactory = new HttpComponentsClientHttpRequestFactory();
@@ -20,4 +60,54 @@ public class RestTemplateConfiguration {
         return new RestTemplate(requestFactory);
     }
     // Sets time out if responses like totalCost fetch, serving cache data takes too long. Should throw a 503 error if timeout is hit.
+
+    @Bean // Dedicated client for CoinGecko calls so price lookups get their own sized pool instead of sharing the defaults.
+    public RestTemplate priceProviderRestTemplate(@Qualifier("priceProviderRequestFactory") ClientHttpRequestFactory priceProviderRequestFactory){
+        return new RestTemplate(priceProviderRequestFactory);
+    }
+
+    @Bean
+    public ClientHttpRequestFactory priceProviderRequestFactory(MeterRegistry meterRegistry){
+        if ("jdk".equalsIgnoreCase(priceProviderClient))
+            return jdkRequestFactory();
+        return pooledRequestFactory(meterRegistry);
+    }
+
+    private HttpComponentsClientHttpRequestFactory pooledRequestFactory(MeterRegistry meterRegistry){
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotalConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(connectionTimeToLive))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        // Exposes httpcomponents.httpclient.pool.* gauges (leased, available, pending, max) tagged httpclient=price-provider
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "price-provider").bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+
+        var requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectionRequestTimeout(connectionAcquireTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
+
+    private JdkClientHttpRequestFactory jdkRequestFactory(){
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return requestFactory;
+    }
 }
@@ -0,0 +1,142 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.AssetSummaryDTO;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/*
+    Immutable, read-optimised view of the asset universe. Entries live in plain arrays and are reached
+    through index permutations sorted by lowercase id, symbol and name, so exact lookups and prefix
+    scans are binary searches with no per-lookup allocation beyond the result.
+ */
+public final class AssetIndex {
+
+    private final AssetSummaryDTO[] assets;
+    private final String[] idKeys;
+    private final int[] idOrder;
+    private final String[] symbolKeys;
+    private final int[] symbolOrder;
+    private final String[] nameKeys;
+    private final int[] nameOrder;
+
+    private static final AssetIndex EMPTY = new AssetIndex(List.of());
+
+    public AssetIndex(Collection<AssetSummaryDTO> entries) {
+        this.assets = entries.toArray(AssetSummaryDTO[]::new);
+        this.idKeys = new String[assets.length];
+        this.symbolKeys = new String[assets.length];
+        this.nameKeys = new String[assets.length];
+        for (int i = 0; i < assets.length; i++) {
+            idKeys[i] = normalise(assets[i].id());
+            symbolKeys[i] = normalise(assets[i].symbol());
+            nameKeys[i] = normalise(assets[i].name());
+        }
+        this.idOrder = sortedOrder(idKeys);
+        this.symbolOrder = sortedOrder(symbolKeys);
+        this.nameOrder = sortedOrder(nameKeys);
+    }
+
+    public static AssetIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return assets.length;
+    }
+
+    public boolean isEmpty() {
+        return assets.length == 0;
+    }
+
+    public Optional<AssetSummaryDTO> findById(String id) {
+        List<AssetSummaryDTO> matches = collect(idKeys, idOrder, normalise(id), false, 1);
+        return matches.isEmpty() ? Optional.empty() : Optional.of(matches.get(0));
+    }
+
+    public List<AssetSummaryDTO> findBySymbol(String symbol) {
+        return collect(symbolKeys, symbolOrder, normalise(symbol), false, Integer.MAX_VALUE);
+    }
+
+    public List<AssetSummaryDTO> findByName(String name) {
+        return collect(nameKeys, nameOrder, normalise(name), false, Integer.MAX_VALUE);
+    }
+
+    /*
+        Maps user input (an id, a ticker or a display name) to a provider id. Many tickers are shared
+        by wrapped and bridged tokens; the shortest id is almost always the canonical coin.
+     */
+    public Optional<String> resolve(String assetName) {
+        Optional<AssetSummaryDTO> byId = findById(assetName);
+        if (byId.isPresent())
+            return Optional.of(byId.get().id());
+        Optional<String> bySymbol = shortestId(findBySymbol(assetName));
+        if (bySymbol.isPresent())
+            return bySymbol;
+        return shortestId(findByName(assetName));
+    }
+
+    // Exact symbol matches first, then symbol prefixes, then name prefixes.
+    public List<AssetSummaryDTO> search(String query, int limit) {
+        String key = normalise(query);
+        if (key.isEmpty() || limit <= 0)
+            return List.of();
+        Set<AssetSummaryDTO> results = new LinkedHashSet<>();
+        List<AssetSummaryDTO> exact = new ArrayList<>(collect(symbolKeys, symbolOrder, key, false, Integer.MAX_VALUE));
+        exact.sort(Comparator.comparingInt((AssetSummaryDTO asset) -> asset.id().length()));
+        addUpTo(results, exact, limit);
+        addUpTo(results, collect(symbolKeys, symbolOrder, key, true, limit), limit);
+        addUpTo(results, collect(nameKeys, nameOrder, key, true, limit), limit);
+        return List.copyOf(results);
+    }
+
+    private List<AssetSummaryDTO> collect(String[] keys, int[] order, String key, boolean prefix, int limit) {
+        List<AssetSummaryDTO> matches = new ArrayList<>();
+        for (int i = lowerBound(keys, order, key); i < order.length && matches.size() < limit; i++) {
+            String candidate = keys[order[i]];
+            if (prefix ? !candidate.startsWith(key) : !candidate.equals(key))
+                break;
+            matches.add(assets[order[i]]);
+        }
+        return matches;
+    }
+
+    private static int lowerBound(String[] keys, int[] order, String key) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[order[mid]].compareTo(key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static int[] sortedOrder(String[] keys) {
+        return IntStream.range(0, keys.length)
+                .boxed()
+                .sorted(Comparator.comparing((Integer i) -> keys[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static Optional<String> shortestId(List<AssetSummaryDTO> matches) {
+        return matches.stream()
+                .map(AssetSummaryDTO::id)
+                .min(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+    }
+
+    private static void addUpTo(Set<AssetSummaryDTO> results, List<AssetSummaryDTO> candidates, int limit) {
+        for (AssetSummaryDTO candidate : candidates) {
+            if (results.size() >= limit)
+                return;
+            results.add(candidate);
+        }
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.nahomgh.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nahomgh.portfolio.dto.AssetSummaryDTO;
+import io.github.nahomgh.portfolio.exceptions.PriceProviderThrottledException;
+import io.github.nahomgh.portfolio.exceptions.PriceProviderUnavailableException;
+import io.github.nahomgh.portfolio.exceptions.UnsupportedAssetException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Keeps the full asset universe (id, symbol, name) from the provider's coin list in the 'assets' table
+    and in memory. The table is read on startup so the index is usable before the provider answers; the
+    coin list itself is only downloaded when the stored copy is missing or older than the max age.
+ */
+@Service
+public class AssetIndexService {
+
+    private final RestTemplate restTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final PriceApiRateLimiter rateLimiter;
+
+    private final LeaderElectionService leaderElection;
+
+    private final PriceProviderGuard providerGuard;
+
+    private volatile AssetIndex assetIndex = AssetIndex.empty();
+    private volatile Instant loadedVersion = Instant.EPOCH;
+
+    @Value("${API_COIN_LIST_ENDPOINT:https://api.coingecko.com/api/v3/coins/list}")
+    private String COIN_LIST_URI;
+
+    @Value("${API_KEY_COINGECKO:}")
+    private String API_KEY_COINGECKO;
+
+    @Value("${assets.index.max-age:24h}")
+    private Duration maxAge;
+
+    private static final int UPSERT_BATCH_SIZE = 1000;
+
+    private static final String UPSERT_ASSET = """
+            INSERT INTO assets (id, symbol, name, updated_at) VALUES (?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET symbol = EXCLUDED.symbol, name = EXCLUDED.name, updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetIndexService.class);
+
+    public AssetIndexService(@Qualifier("priceProviderRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper,
+                             JdbcTemplate jdbcTemplate, PriceApiRateLimiter rateLimiter,
+                             LeaderElectionService leaderElection, PriceProviderGuard providerGuard) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rateLimiter = rateLimiter;
+        this.leaderElection = leaderElection;
+        this.providerGuard = providerGuard;
+    }
+
+    /*
+        Resolves an id, ticker or name to a provider id without any outbound call. Until the index has
+        been loaded once the input is passed through lowercased, as before.
+     */
+    public String resolve(String assetName) {
+        AssetIndex index = assetIndex;
+        if (index.isEmpty())
+            return assetName.toLowerCase().trim();
+        return index.resolve(assetName).orElseThrow(() ->
+                new UnsupportedAssetException("Unsupported Asset - Please Check Spelling Or Provide Another Asset"));
+    }
+
+    public List<AssetSummaryDTO> search(String query, int limit) {
+        return assetIndex.search(query, limit);
+    }
+
+    // Every node reloads the table when it changes; only the leader downloads the coin list into it.
+    @Scheduled(initialDelay = 0, fixedRate = 3600000)
+    public void refreshIndex() {
+        Timestamp lastUpdated = jdbcTemplate.queryForObject("SELECT MAX(updated_at) FROM assets", Timestamp.class);
+        if (lastUpdated != null && lastUpdated.toInstant().isAfter(loadedVersion))
+            loadFromDatabase(lastUpdated.toInstant());
+        if (lastUpdated != null && lastUpdated.toInstant().isAfter(Instant.now().minus(maxAge)))
+            return;
+        if (!leaderElection.isLeader())
+            return;
+        try {
+            refreshFromProvider();
+        } catch (PriceProviderThrottledException e) {
+            logger.info("Asset index refresh deferred - provider quota reserved for interactive requests");
+        } catch (PriceProviderUnavailableException e) {
+            logger.info("Asset index refresh skipped - {}", e.getMessage());
+        } catch (RestClientException e) {
+            logger.warn("Asset index refresh failed, keeping {} stored assets: {}", assetIndex.size(), e.getMessage());
+        }
+    }
+
+    private void loadFromDatabase(Instant version) {
+        List<AssetSummaryDTO> storedAssets = jdbcTemplate.query("SELECT id, symbol, name FROM assets",
+                (rs, rowNum) -> new AssetSummaryDTO(rs.getString("id"), rs.getString("symbol"), rs.getString("name")));
+        if (!storedAssets.isEmpty()) {
+            assetIndex = new AssetIndex(storedAssets);
+            loadedVersion = version;
+            logger.info("Asset index loaded with {} stored assets", storedAssets.size());
+        }
+    }
+
+    private void refreshFromProvider() {
+        URI uri = UriComponentsBuilder.fromUriString(COIN_LIST_URI).build().toUri();
+        rateLimiter.acquire(PriceApiRateLimiter.Priority.BACKFILL);
+        List<AssetSummaryDTO> coins = providerGuard.call(() -> restTemplate.execute(
+                uri,
+                HttpMethod.GET,
+                request -> {
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    request.getHeaders().set("x-cg-demo-api-key", API_KEY_COINGECKO);
+                },
+                response -> readCoinList(response.getBody())
+        ));
+        if (coins == null || coins.isEmpty()) {
+            logger.warn("Provider returned an empty coin list - keeping the stored asset index");
+            return;
+        }
+
+        Timestamp refreshedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(UPSERT_ASSET, coins, UPSERT_BATCH_SIZE, (ps, coin) -> {
+            ps.setString(1, coin.id());
+            ps.setString(2, coin.symbol());
+            ps.setString(3, coin.name());
+            ps.setTimestamp(4, refreshedAt);
+        });
+        // Coins the provider no longer lists.
+        jdbcTemplate.update("DELETE FROM assets WHERE updated_at < ?", refreshedAt);
+        assetIndex = new AssetIndex(coins);
+        loadedVersion = refreshedAt.toInstant();
+        logger.info("Asset index refreshed with {} assets", coins.size());
+    }
+
+    private List<AssetSummaryDTO> readCoinList(InputStream responseBody) throws IOException {
+        List<AssetSummaryDTO> coins = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(responseBody)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                return coins;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String id = null;
+                String symbol = null;
+                String name = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "id" -> id = parser.getValueAsString();
+                        case "symbol" -> symbol = parser.getValueAsString();
+                        case "name" -> name = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (id != null && !id.isBlank() && symbol != null && name != null)
+                    coins.add(new AssetSummaryDTO(id, symbol, name));
+            }
+        }
+        return coins;
+    }
+}
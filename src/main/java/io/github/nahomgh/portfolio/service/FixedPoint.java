@@ -0,0 +1,192 @@
+package io.github.nahomgh.portfolio.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/*
+    Money/quantity value held as a long scaled by 10^8, the scale of every NUMERIC(38,8) column. Products
+    and quotients are rounded HALF_UP to a requested scale exactly as BigDecimal.setScale/divide would,
+    but are computed with long arithmetic: operands are split into integer and fractional parts so no
+    intermediate exceeds 64 bits.
+
+    Values that do not fit (more than 8 decimal places, or beyond +-92 billion) and any operation that
+    would overflow fall back to BigDecimal transparently, so results always match the BigDecimal code.
+ */
+public final class FixedPoint implements Comparable<FixedPoint> {
+
+    public static final int SCALE = 8;
+    public static final FixedPoint ZERO = new FixedPoint(0L, null);
+
+    private static final long ONE = 100_000_000L;
+    private static final long[] POWERS_OF_TEN = new long[19];
+    // Longest integer part (in digits) that still fits a long once scaled by 10^8.
+    private static final int MAX_INTEGER_DIGITS = 10;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private final long unscaled;
+    private final BigDecimal decimal; // Non-null only on the fallback path.
+
+    private FixedPoint(long unscaled, BigDecimal decimal) {
+        this.unscaled = unscaled;
+        this.decimal = decimal;
+    }
+
+    public static FixedPoint of(BigDecimal value) {
+        if (value.signum() == 0)
+            return ZERO;
+        int scale = value.scale();
+        if (scale > SCALE) {
+            value = value.stripTrailingZeros();
+            scale = value.scale();
+        }
+        if (scale <= SCALE && value.precision() - scale <= MAX_INTEGER_DIGITS)
+            return new FixedPoint(value.setScale(SCALE).unscaledValue().longValue(), null);
+        return new FixedPoint(0L, value);
+    }
+
+    public static FixedPoint ofUnscaled(long unscaled) {
+        return new FixedPoint(unscaled, null);
+    }
+
+    public boolean isExact() {
+        return decimal == null;
+    }
+
+    public int signum() {
+        return decimal != null ? decimal.signum() : Long.signum(unscaled);
+    }
+
+    public FixedPoint add(FixedPoint other) {
+        if (decimal == null && other.decimal == null) {
+            long sum = unscaled + other.unscaled;
+            if (((unscaled ^ sum) & (other.unscaled ^ sum)) >= 0)
+                return new FixedPoint(sum, null);
+        }
+        return of(toBigDecimal().add(other.toBigDecimal()));
+    }
+
+    public FixedPoint subtract(FixedPoint other) {
+        if (decimal == null && other.decimal == null) {
+            long difference = unscaled - other.unscaled;
+            if (((unscaled ^ other.unscaled) & (unscaled ^ difference)) >= 0)
+                return new FixedPoint(difference, null);
+        }
+        return of(toBigDecimal().subtract(other.toBigDecimal()));
+    }
+
+    // Same as this.multiply(other).setScale(scale, HALF_UP) on BigDecimals.
+    public FixedPoint multiply(FixedPoint other, int scale) {
+        checkScale(scale);
+        if (decimal == null && other.decimal == null && unscaled != Long.MIN_VALUE && other.unscaled != Long.MIN_VALUE) {
+            try {
+                long product = multiplyUnsigned(Math.abs(unscaled), Math.abs(other.unscaled), scale);
+                long rescaled = Math.multiplyExact(product, POWERS_OF_TEN[SCALE - scale]);
+                return new FixedPoint(Long.signum(unscaled) * Long.signum(other.unscaled) < 0 ? -rescaled : rescaled, null);
+            } catch (ArithmeticException overflow) {
+                // Fall through to BigDecimal.
+            }
+        }
+        return of(toBigDecimal().multiply(other.toBigDecimal()).setScale(scale, RoundingMode.HALF_UP));
+    }
+
+    // Same as this.divide(divisor, scale, HALF_UP) on BigDecimals.
+    public FixedPoint divide(FixedPoint divisor, int scale) {
+        checkScale(scale);
+        if (divisor.signum() == 0)
+            throw new ArithmeticException("Division by zero");
+        if (decimal == null && divisor.decimal == null && unscaled != Long.MIN_VALUE && divisor.unscaled != Long.MIN_VALUE) {
+            try {
+                long quotient = divideUnsigned(Math.abs(unscaled), Math.abs(divisor.unscaled), scale);
+                long rescaled = Math.multiplyExact(quotient, POWERS_OF_TEN[SCALE - scale]);
+                return new FixedPoint(Long.signum(unscaled) * Long.signum(divisor.unscaled) < 0 ? -rescaled : rescaled, null);
+            } catch (ArithmeticException overflow) {
+                // Fall through to BigDecimal.
+            }
+        }
+        return of(toBigDecimal().divide(divisor.toBigDecimal(), scale, RoundingMode.HALF_UP));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return decimal != null ? decimal : BigDecimal.valueOf(unscaled, SCALE);
+    }
+
+    // Exact for values produced at or below the requested scale; rounds HALF_UP otherwise.
+    public BigDecimal toBigDecimal(int scale) {
+        if (decimal != null)
+            return decimal.setScale(scale, RoundingMode.HALF_UP);
+        if (scale <= SCALE && unscaled % POWERS_OF_TEN[SCALE - scale] == 0)
+            return BigDecimal.valueOf(unscaled / POWERS_OF_TEN[SCALE - scale], scale);
+        return BigDecimal.valueOf(unscaled, SCALE).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    /*
+        round(a * b / 10^(16 - scale)) for non-negative a, b scaled by 10^8. With a = aq*10^8 + ar and
+        b = bq*10^8 + br the product is aq*bq*10^16 + (aq*br + ar*bq)*10^8 + ar*br; each term is divided
+        down separately and the leftover fractions are recombined before rounding.
+     */
+    private static long multiplyUnsigned(long a, long b, int scale) {
+        long aq = a / ONE, ar = a % ONE;
+        long bq = b / ONE, br = b % ONE;
+        long divisor = POWERS_OF_TEN[16 - scale];
+        long middleDivisor = POWERS_OF_TEN[SCALE - scale];
+
+        long whole = Math.multiplyExact(Math.multiplyExact(aq, bq), POWERS_OF_TEN[scale]);
+        long middle = Math.addExact(Math.multiplyExact(aq, br), Math.multiplyExact(ar, bq));
+        long low = ar * br; // < 10^16
+
+        long fraction = (middle % middleDivisor) * ONE + low % divisor; // < 2 * 10^(16 - scale)
+        long result = Math.addExact(whole, middle / middleDivisor);
+        result = Math.addExact(result, low / divisor + fraction / divisor);
+        long remainder = fraction % divisor;
+        return remainder >= divisor - remainder ? Math.addExact(result, 1) : result;
+    }
+
+    // round(a * 10^scale / b) for non-negative a and positive b; one decimal digit at a time if a * 10^scale overflows.
+    private static long divideUnsigned(long a, long b, int scale) {
+        if (a <= Long.MAX_VALUE / POWERS_OF_TEN[scale]) {
+            long dividend = a * POWERS_OF_TEN[scale];
+            long remainder = dividend % b;
+            return remainder >= b - remainder ? dividend / b + 1 : dividend / b;
+        }
+        long result = a / b;
+        long remainder = a % b;
+        for (int digit = 0; digit < scale; digit++) {
+            remainder = Math.multiplyExact(remainder, 10);
+            result = Math.addExact(Math.multiplyExact(result, 10), remainder / b);
+            remainder = remainder % b;
+        }
+        return remainder >= b - remainder ? Math.addExact(result, 1) : result;
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > SCALE)
+            throw new IllegalArgumentException("Scale must be between 0 and " + SCALE);
+    }
+
+    @Override
+    public int compareTo(FixedPoint other) {
+        if (decimal == null && other.decimal == null)
+            return Long.compare(unscaled, other.unscaled);
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FixedPoint fixedPoint && compareTo(fixedPoint) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return decimal == null ? Long.hashCode(unscaled) : decimal.stripTrailingZeros().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
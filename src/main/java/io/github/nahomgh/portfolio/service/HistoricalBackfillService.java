@@ -0,0 +1,181 @@
+package io.github.nahomgh.portfolio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.nahomgh.portfolio.dto.HistoricalBackfillJobDTO;
+import io.github.nahomgh.portfolio.exceptions.BackfillLimitExceededException;
+import io.github.nahomgh.portfolio.exceptions.InputValidationException;
+import io.github.nahomgh.portfolio.exceptions.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Loads historical prices for a batch of backdated trades up front. Needed dates are grouped per asset
+    and each asset costs one market_chart/range call covering its earliest to latest missing date; the
+    daily prices are then written to historical_prices in JDBC batches. Later /history lookups for those
+    dates are served by HistoricalPriceStore from the table.
+
+    Jobs run one at a time on a background thread and their progress is kept in memory for an hour. Each
+    job belongs to the user who started it: only they can read it, and a user can have at most
+    max-active-jobs-per-user queued or running at once, so no one user can tie up the shared BACKFILL quota.
+ */
+@Service
+public class HistoricalBackfillService {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int MAX_HISTORY_DAYS = 365;
+
+    private static final String INSERT_PRICE = "INSERT INTO historical_prices (asset, price_date, price_usd, fetched_at) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (asset, price_date) DO NOTHING";
+
+    private final PriceDataService priceDataService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Cache<String, BackfillJob> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(1))
+            .maximumSize(1000)
+            .build();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("historical-backfill").daemon().factory());
+
+    @Value("${prices.backfill.max-active-jobs-per-user:2}")
+    private int maxActiveJobsPerUser = 2;
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalBackfillService.class);
+
+    public HistoricalBackfillService(PriceDataService priceDataService, JdbcTemplate jdbcTemplate) {
+        this.priceDataService = priceDataService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public HistoricalBackfillJobDTO startBackfill(Long userId, Map<String, Set<LocalDate>> datesByAsset) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate earliest = today.minusDays(MAX_HISTORY_DAYS);
+        Map<String, SortedSet<LocalDate>> neededDates = new LinkedHashMap<>();
+        datesByAsset.forEach((assetName, dates) -> {
+            for (LocalDate date : dates) {
+                if (date == null || !date.isBefore(today) || date.isBefore(earliest))
+                    throw new InputValidationException("Backfill dates must be within the last " + MAX_HISTORY_DAYS + " days and before today");
+            }
+            if (!dates.isEmpty())
+                neededDates.computeIfAbsent(priceDataService.resolveAssetSymbol(assetName), asset -> new TreeSet<>()).addAll(dates);
+        });
+        if (neededDates.isEmpty())
+            throw new InputValidationException("No dates to backfill");
+
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), userId, neededDates.size());
+        // Counting and registering together, so concurrent requests cannot both slip under the limit.
+        synchronized (jobs) {
+            long activeJobs = jobs.asMap().values().stream()
+                    .filter(existing -> existing.userId.equals(userId) && existing.finishedAt == null)
+                    .count();
+            if (activeJobs >= maxActiveJobsPerUser)
+                throw new BackfillLimitExceededException("At most " + maxActiveJobsPerUser + " backfill jobs can be queued or running - wait for one to finish");
+            jobs.put(job.jobId, job);
+        }
+        backfillExecutor.execute(() -> run(job, neededDates));
+        return job.toDTO();
+    }
+
+    // Another user's job is reported as not found rather than forbidden, so job ids cannot be probed.
+    public HistoricalBackfillJobDTO getJob(Long userId, String jobId) {
+        BackfillJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId))
+            throw new ResourceNotFoundException("Backfill job " + jobId + " NOT found");
+        return job.toDTO();
+    }
+
+    @PreDestroy
+    public void shutdownBackfillExecutor() {
+        backfillExecutor.shutdownNow();
+    }
+
+    private void run(BackfillJob job, Map<String, SortedSet<LocalDate>> neededDates) {
+        job.status = "RUNNING";
+        neededDates.forEach((assetName, dates) -> {
+            try {
+                backfillAsset(job, assetName, dates);
+            } catch (RuntimeException e) {
+                logger.warn("Backfill of '{}' failed: {}", assetName, e.getMessage());
+                job.failedAssets.add(assetName);
+            }
+            job.completedAssets.incrementAndGet();
+        });
+        job.finishedAt = Instant.now();
+        job.status = job.failedAssets.isEmpty() ? "COMPLETED" : "COMPLETED_WITH_ERRORS";
+        logger.info("Backfill {} finished: {} prices stored with {} provider calls", job.jobId, job.pricesStored.get(), job.providerCalls.get());
+    }
+
+    private void backfillAsset(BackfillJob job, String assetName, SortedSet<LocalDate> dates) {
+        Set<LocalDate> storedDates = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT price_date FROM historical_prices WHERE asset = ? AND price_date BETWEEN ? AND ?",
+                LocalDate.class, assetName, Date.valueOf(dates.first()), Date.valueOf(dates.last())));
+        SortedSet<LocalDate> missingDates = new TreeSet<>(dates);
+        missingDates.removeAll(storedDates);
+        if (missingDates.isEmpty())
+            return;
+
+        job.providerCalls.incrementAndGet();
+        Map<LocalDate, BigDecimal> dailyPrices = priceDataService.fetchDailyPrices(assetName, missingDates.first(), missingDates.last());
+        // Every day in the range is stored, not only the requested ones; it costs nothing extra. Prices that
+        // round to zero at the column scale would break CHECK (price_usd > 0) and fail the whole batch, so
+        // they are skipped and left to the per-date lookup, as HistoricalPriceStore does.
+        Map<LocalDate, BigDecimal> rows = new TreeMap<>();
+        dailyPrices.forEach((priceDate, price) -> {
+            BigDecimal storedPrice = price.setScale(8, RoundingMode.HALF_UP);
+            if (!storedDates.contains(priceDate) && storedPrice.signum() > 0)
+                rows.put(priceDate, storedPrice);
+        });
+        Timestamp fetchedAt = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_PRICE, new ArrayList<>(rows.entrySet()), INSERT_BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, assetName);
+            ps.setDate(2, Date.valueOf(row.getKey()));
+            ps.setBigDecimal(3, row.getValue());
+            ps.setTimestamp(4, fetchedAt);
+        });
+        job.pricesStored.addAndGet(rows.size());
+        if (!rows.keySet().containsAll(missingDates))
+            logger.warn("No storable price for some requested dates of '{}'", assetName);
+    }
+
+    private static final class BackfillJob {
+        private final String jobId;
+        private final Long userId;
+        private final int totalAssets;
+        private final Instant startedAt = Instant.now();
+        private final AtomicInteger completedAssets = new AtomicInteger();
+        private final AtomicInteger pricesStored = new AtomicInteger();
+        private final AtomicInteger providerCalls = new AtomicInteger();
+        private final List<String> failedAssets = Collections.synchronizedList(new ArrayList<>());
+        private volatile String status = "QUEUED";
+        private volatile Instant finishedAt;
+
+        private BackfillJob(String jobId, Long userId, int totalAssets) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.totalAssets = totalAssets;
+        }
+
+        private HistoricalBackfillJobDTO toDTO() {
+            return new HistoricalBackfillJobDTO(jobId, status, totalAssets, completedAssets.get(), pricesStored.get(),
+                    providerCalls.get(), List.copyOf(failedAssets), startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.nahomgh.portfolio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.nahomgh.portfolio.entity.HistoricalPrice;
+import io.github.nahomgh.portfolio.entity.HistoricalPriceId;
+import io.github.nahomgh.portfolio.repository.HistoricalPriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/*
+    Read-through store for historical prices keyed by (asset, date).
+    Lookup order: in-memory front -> historical_prices table -> provider (via the supplied loader).
+    A price for a past date never changes, so entries are never expired; the in-memory front is only
+    bounded in size. Prices for today are passed through without being stored as the day has not closed.
+ */
+@Service
+public class HistoricalPriceStore {
+
+    private final HistoricalPriceRepository historicalPriceRepository;
+    private final Cache<HistoricalPriceId, BigDecimal> memoryFront;
+
+    private static final Logger logger = LoggerFactory.getLogger(HistoricalPriceStore.class);
+
+    public HistoricalPriceStore(HistoricalPriceRepository historicalPriceRepository,
+                                @Value("${historical-prices.memory-max-size:50000}") long memoryMaxSize) {
+        this.historicalPriceRepository = historicalPriceRepository;
+        this.memoryFront = Caffeine.newBuilder()
+                .maximumSize(memoryMaxSize)
+                .build();
+    }
+
+    public BigDecimal getPrice(String assetName, LocalDate priceDate, Supplier<BigDecimal> priceLoader) {
+        HistoricalPriceId key = new HistoricalPriceId(assetName, priceDate);
+
+        BigDecimal price = memoryFront.getIfPresent(key);
+        if (price != null)
+            return price;
+
+        Optional<HistoricalPrice> storedPrice = historicalPriceRepository.findById(key);
+        if (storedPrice.isPresent()) {
+            memoryFront.put(key, storedPrice.get().getPriceUsd());
+            return storedPrice.get().getPriceUsd();
+        }
+
+        price = priceLoader.get().setScale(8, RoundingMode.HALF_UP);
+        if (priceDate.isBefore(LocalDate.now(ZoneOffset.UTC)) && price.signum() > 0) {
+            historicalPriceRepository.insertIfAbsent(assetName, priceDate, price, Instant.now());
+            memoryFront.put(key, price);
+            logger.info("Stored historical price for '{}' on {}", assetName, priceDate);
+        }
+        return price;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/*
+    Picks one node in the cluster to run the scheduled provider jobs, using a lease key in Redis
+    (SET NX PX). The holder renews the lease well before it expires; if it dies the key times out and
+    another node takes over on its next attempt. Renewal and release only touch the key while it still
+    holds this node's id, so a node that lost the lease cannot extend or delete someone else's.
+
+    If Redis cannot be reached every node considers itself leader: duplicated refreshes are preferable
+    to prices that stop refreshing.
+ */
+@Service
+public class LeaderElectionService {
+
+    private static final RedisScript<Long> RENEW_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId;
+
+    @Value("${leader-election.key:portfolio:scheduler-leader}")
+    private String leaseKey;
+
+    @Value("${leader-election.lease:30s}")
+    private Duration leaseDuration;
+
+    private volatile Instant leaseValidUntil = Instant.EPOCH;
+    private volatile boolean redisUnavailable = false;
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderElectionService.class);
+
+    public LeaderElectionService(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = hostName() + ":" + UUID.randomUUID();
+        Gauge.builder("scheduler.leader", this, election -> election.isLeader() ? 1 : 0)
+                .description("1 when this node runs the scheduled price jobs")
+                .register(meterRegistry);
+    }
+
+    // The lease is only trusted until shortly before it expires in Redis, to allow for clock drift and pauses.
+    public boolean isLeader() {
+        return redisUnavailable || Instant.now().isBefore(leaseValidUntil);
+    }
+
+    // Settle the lease before the first scheduled jobs run, so the leader does not skip its startup refresh.
+    @PostConstruct
+    public void electOnStartup() {
+        maintainLease();
+    }
+
+    @Scheduled(initialDelay = 10000, fixedRate = 10000)
+    public void maintainLease() {
+        Instant attemptedAt = Instant.now();
+        try {
+            boolean held = isLeader() && !redisUnavailable ? renew() || acquire() : acquire();
+            if (redisUnavailable)
+                logger.info("Redis reachable again - resuming leader election");
+            redisUnavailable = false;
+            if (held && leaseValidUntil.isBefore(attemptedAt))
+                logger.info("Node {} acquired the scheduler lease", nodeId);
+            else if (!held && leaseValidUntil.isAfter(attemptedAt))
+                logger.warn("Node {} lost the scheduler lease", nodeId);
+            leaseValidUntil = held ? attemptedAt.plus(leaseDuration.multipliedBy(2).dividedBy(3)) : Instant.EPOCH;
+        } catch (RuntimeException e) {
+            if (!redisUnavailable)
+                logger.warn("Leader election unavailable, running scheduled jobs on this node: {}", e.getMessage());
+            redisUnavailable = true;
+            leaseValidUntil = Instant.EPOCH;
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (!Instant.now().isBefore(leaseValidUntil))
+            return;
+        leaseValidUntil = Instant.EPOCH;
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(leaseKey), nodeId);
+        } catch (RuntimeException e) {
+            logger.debug("Could not release scheduler lease: {}", e.getMessage());
+        }
+    }
+
+    private boolean acquire() {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, nodeId, leaseDuration));
+    }
+
+    private boolean renew() {
+        Long renewed = redisTemplate.execute(RENEW_LEASE, List.of(leaseKey), nodeId, String.valueOf(leaseDuration.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.exceptions.PriceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/*
+    Full-book revaluation: rewrites every user's MAIN_PORTFOLIO row in one pass instead of one
+    getPortfolio() per user.
+
+    - Prices are taken once, up front, for every held asset, so all users are valued against the same
+      snapshot. If live quotes cannot be had for all of them the stored 'asset_prices' are used instead.
+    - Holdings are read once, in user_id order, through a server-side cursor inside a read-only
+      REPEATABLE READ transaction, and cut into chunks of whole users.
+    - Chunks are valued on a fork-join pool (FixedPoint math, rounded per holding as in getPortfolio) and
+      each chunk is written with one JDBC batch upsert. The reader blocks once enough chunks are in flight.
+
+    A row written by a transaction or price refresh after the run started is newer than the snapshot and
+    is left alone. A user with an unpriced asset keeps their previous valuation (and its last_updated)
+    rather than having it overwritten with NULL, since it is the fallback when live prices are down.
+    Runs on the scheduler leader only, one run at a time.
+ */
+@Service
+public class PortfolioRevaluationService {
+
+    public record RevaluationResult(int users, int holdings, int unpricedUsers, Duration elapsed) {
+    }
+
+    record HoldingRow(String asset, BigDecimal units, BigDecimal totalCostBasis) {
+    }
+
+    record UserHoldings(long userId, List<HoldingRow> holdings) {
+    }
+
+    record UserTotals(long userId, BigDecimal totalInvested, BigDecimal totalValuation) {
+    }
+
+    private static final String SELECT_HELD_ASSETS = "SELECT DISTINCT asset FROM holdings";
+    private static final String SELECT_STORED_PRICES = "SELECT asset, price_usd FROM asset_prices";
+    private static final String SELECT_HOLDINGS = "SELECT user_id, asset, units, total_cost_basis FROM holdings ORDER BY user_id";
+
+    private static final String UPSERT_PORTFOLIO = """
+            INSERT INTO portfolios (created_at, user_id, portfolio_type, total_invested, total_valuation, total_pnl, last_updated)
+            VALUES (now(), ?, 'MAIN_PORTFOLIO', ?, ?, ?, ?)
+            ON CONFLICT (portfolio_type, user_id) DO UPDATE SET total_invested = EXCLUDED.total_invested,
+                total_valuation = COALESCE(EXCLUDED.total_valuation, portfolios.total_valuation),
+                total_pnl = CASE WHEN EXCLUDED.total_valuation IS NULL THEN portfolios.total_pnl ELSE EXCLUDED.total_pnl END,
+                last_updated = CASE WHEN EXCLUDED.total_valuation IS NULL THEN portfolios.last_updated ELSE EXCLUDED.last_updated END
+            WHERE portfolios.last_updated IS NULL OR portfolios.last_updated <= EXCLUDED.last_updated
+            """;
+
+    private static final int FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final PriceDataService priceDataService;
+    private final LeaderElectionService leaderElection;
+    private final Timer revaluationTimer;
+    private final ForkJoinPool valuationPool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${revaluation.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioRevaluationService.class);
+
+    public PortfolioRevaluationService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                       PriceDataService priceDataService, LeaderElectionService leaderElection,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${revaluation.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.priceDataService = priceDataService;
+        this.leaderElection = leaderElection;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.revaluationTimer = Timer.builder("portfolio.revaluation")
+                .description("Time taken to revalue every portfolio")
+                .register(meterRegistry);
+        // Each worker holds a pooled connection while writing; keep this below the connection pool size.
+        this.valuationPool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    @Scheduled(cron = "${revaluation.cron:0 15 * * * *}")
+    public void scheduledRevaluation() {
+        if (!leaderElection.isLeader())
+            return;
+        try {
+            revalueAll();
+        } catch (RuntimeException e) {
+            logger.warn("Scheduled portfolio revaluation failed: {}", e.getMessage());
+        }
+    }
+
+    public Optional<RevaluationResult> revalueAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Portfolio revaluation already running - skipped");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(revaluationTimer.record(this::run));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownValuationPool() {
+        valuationPool.shutdownNow();
+    }
+
+    private RevaluationResult run() {
+        Instant startedAt = Instant.now();
+        Map<String, FixedPoint> prices = priceSnapshot();
+        Timestamp valuedAt = Timestamp.from(startedAt);
+
+        Semaphore inFlight = new Semaphore(valuationPool.getParallelism() * 2);
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        ChunkReader reader = new ChunkReader(chunk -> {
+            inFlight.acquireUninterruptibly();
+            tasks.add(valuationPool.submit(() -> {
+                try {
+                    return valueAndWrite(chunk, prices, valuedAt);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        });
+
+        // PostgreSQL only streams with a fetch size inside a transaction; otherwise the whole result is buffered.
+        snapshotTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_HOLDINGS);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, reader);
+            reader.finish();
+        });
+
+        int unpricedUsers = 0;
+        for (ForkJoinTask<Integer> task : tasks)
+            unpricedUsers += task.join();
+
+        RevaluationResult result = new RevaluationResult(reader.users, reader.rows, unpricedUsers,
+                Duration.between(startedAt, Instant.now()));
+        logger.info("Revalued {} portfolios ({} holdings, {} without prices) in {} ms", result.users(), result.holdings(),
+                result.unpricedUsers(), result.elapsed().toMillis());
+        return result;
+    }
+
+    /*
+        One price per held asset. Live quotes are preferred; when any asset has none, the prices last
+        stored by the snapshot service are used for all assets so the run still uses a single snapshot.
+     */
+    private Map<String, FixedPoint> priceSnapshot() {
+        List<String> heldAssets = jdbcTemplate.queryForList(SELECT_HELD_ASSETS, String.class);
+        Map<String, FixedPoint> prices = new HashMap<>();
+        if (heldAssets.isEmpty())
+            return prices;
+        try {
+            for (Map.Entry<String, PriceQuoteDTO> quote : priceDataService.getAssetQuotesForBatch(heldAssets).entrySet())
+                prices.put(quote.getKey(), FixedPoint.of(quote.getValue().price()));
+        } catch (PriceUnavailableException e) {
+            logger.warn("Live prices unavailable for revaluation ({}) - using stored prices", e.getMessage());
+            prices.clear();
+            jdbcTemplate.query(SELECT_STORED_PRICES, (RowCallbackHandler) rs ->
+                    prices.put(rs.getString(1), FixedPoint.of(rs.getBigDecimal(2))));
+        }
+        return prices;
+    }
+
+    // Returns the number of users in the chunk left without a valuation.
+    private int valueAndWrite(List<UserHoldings> chunk, Map<String, FixedPoint> prices, Timestamp valuedAt) {
+        List<UserTotals> totals = new ArrayList<>(chunk.size());
+        int unpriced = 0;
+        for (UserHoldings user : chunk) {
+            UserTotals userTotals = value(user, prices);
+            if (userTotals.totalValuation() == null)
+                unpriced++;
+            totals.add(userTotals);
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PORTFOLIO, totals, totals.size(), (ps, row) -> {
+            ps.setLong(1, row.userId());
+            ps.setBigDecimal(2, row.totalInvested());
+            ps.setObject(3, row.totalValuation(), Types.NUMERIC);
+            ps.setObject(4, row.totalValuation() == null ? null : row.totalValuation().subtract(row.totalInvested()), Types.NUMERIC);
+            ps.setTimestamp(5, valuedAt);
+        });
+        return unpriced;
+    }
+
+    // Same totals as getPortfolio(); the valuation is null when any held asset has no price.
+    static UserTotals value(UserHoldings user, Map<String, FixedPoint> prices) {
+        FixedPoint invested = FixedPoint.ZERO;
+        FixedPoint valuation = FixedPoint.ZERO;
+        boolean priced = true;
+        for (HoldingRow holding : user.holdings()) {
+            invested = invested.add(FixedPoint.of(holding.totalCostBasis()));
+            FixedPoint price = prices.get(holding.asset());
+            if (price == null)
+                priced = false;
+            else if (priced)
+                valuation = valuation.add(FixedPoint.of(holding.units()).multiply(price, 2));
+        }
+        return new UserTotals(user.userId(), invested.toBigDecimal(), priced ? valuation.toBigDecimal(2) : null);
+    }
+
+    // Groups cursor rows (ordered by user_id) into chunks of whole users.
+    private class ChunkReader implements RowCallbackHandler {
+
+        private final Consumer<List<UserHoldings>> sink;
+        private List<UserHoldings> chunk = new ArrayList<>(chunkSize);
+        private List<HoldingRow> current;
+        private long currentUserId;
+        private int rows;
+        private int users;
+
+        ChunkReader(Consumer<List<UserHoldings>> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long userId = rs.getLong(1);
+            if (current == null || userId != currentUserId) {
+                endUser();
+                current = new ArrayList<>(4);
+                currentUserId = userId;
+            }
+            current.add(new HoldingRow(rs.getString(2), rs.getBigDecimal(3), rs.getBigDecimal(4)));
+            rows++;
+        }
+
+        void finish() {
+            endUser();
+            if (!chunk.isEmpty())
+                sink.accept(chunk);
+        }
+
+        private void endUser() {
+            if (current == null)
+                return;
+            chunk.add(new UserHoldings(currentUserId, current));
+            current = null;
+            users++;
+            if (chunk.size() >= chunkSize) {
+                sink.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package io.github.nahomgh.portfolio.service;
 
 import io.github.nahomgh.portfolio.dto.HoldingDTO;
+import io.github.nahomgh.portfolio.dto.HoldingPositionDTO;
 import io.github.nahomgh.portfolio.dto.PortfolioDTO;
-import io.github.nahomgh.portfolio.entity.Holding;
+import io.github.nahomgh.portfolio.dto.PortfolioSummaryDTO;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.entity.Portfolio;
+import io.github.nahomgh.portfolio.entity.PortfolioType;
 import io.github.nahomgh.portfolio.exceptions.PriceUnavailableException;
 import io.github.nahomgh.portfolio.repository.HoldingRepository;
+import io.github.nahomgh.portfolio.repository.PortfolioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 
@@ -18,58 +25,93 @@ import java.util.*;
 public class PortfolioService {
 
     private final HoldingRepository holdingRepository;
+    private final PortfolioRepository portfolioRepository;
     private final PriceDataService priceDataService;
+    private final ValuationEngine valuationEngine;
     private static final Logger logger = LoggerFactory.getLogger(PortfolioService.class);
 
-    public PortfolioService(HoldingRepository holdingRepository, PriceDataService priceDataService) {
+    public PortfolioService(HoldingRepository holdingRepository, PortfolioRepository portfolioRepository,
+                            PriceDataService priceDataService, ValuationEngine valuationEngine) {
         this.holdingRepository = holdingRepository;
+        this.portfolioRepository = portfolioRepository;
         this.priceDataService = priceDataService;
+        this.valuationEngine = valuationEngine;
+    }
+
+    /*
+        Totals from the in-memory valuation engine. If a user's prices cannot be loaded, the snapshot row
+        maintained in 'portfolios' is served instead, as long as it has a valuation.
+     */
+    public PortfolioSummaryDTO getPortfolioSummary(Long userId) {
+        try {
+            return valuationEngine.getSummary(userId);
+        } catch (PriceUnavailableException e) {
+            Optional<Portfolio> snapshot = portfolioRepository.findByUser_IdAndPortfolioType(userId, PortfolioType.MAIN_PORTFOLIO);
+            if (snapshot.isEmpty() || snapshot.get().getTotalValuation() == null)
+                throw e;
+            Portfolio portfolio = snapshot.get();
+            logger.info("Serving portfolio snapshot for user {} - live prices unavailable", userId);
+            return new PortfolioSummaryDTO(portfolio.getTotalInvested(), portfolio.getTotalValuation(),
+                    portfolio.getTotalPnL(), portfolio.getLastUpdated());
+        }
     }
 
     public PortfolioDTO getPortfolio(Long userId) {
-        List<Holding> holdings = holdingRepository.findAllByUser_id(userId);
+        List<HoldingPositionDTO> holdings = holdingRepository.findPositionsByUserId(userId);
         if (holdings.isEmpty()) {
             return new PortfolioDTO(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
         }
 
-        Map<String, BigDecimal> priceCache = new HashMap<>();
-        for(Holding holding : holdings){
-            priceCache.putIfAbsent(holding.getAsset(), priceDataService.getAssetPrice(holding.getAsset()));
+        Set<String> heldAssets = new HashSet<>();
+        for(HoldingPositionDTO holding : holdings){
+            heldAssets.add(holding.asset());
         }
-
-        // Return holding details:
-        BigDecimal totalInvested = BigDecimal.ZERO;
-        BigDecimal totalValuation = BigDecimal.ZERO;
-
-        for (Holding holding : holdings) {
-            BigDecimal currentAssetPrice = priceCache.get(holding.getAsset());
-            totalInvested = totalInvested.add(holding.getTotalCostBasis());
-            totalValuation = totalValuation.add(holding.getUnits().multiply(currentAssetPrice).setScale(2, RoundingMode.HALF_UP));
-
+        Map<String, PriceQuoteDTO> priceQuotes = priceDataService.getAssetQuotes(heldAssets);
+        Map<String, FixedPoint> priceCache = new HashMap<>();
+        Instant pricesAsOf = null;
+        for(Map.Entry<String, PriceQuoteDTO> quote : priceQuotes.entrySet()){
+            priceCache.put(quote.getKey(), FixedPoint.of(quote.getValue().price()));
+            // The portfolio is only as fresh as its oldest price.
+            if(pricesAsOf == null || quote.getValue().asOf().isBefore(pricesAsOf))
+                pricesAsOf = quote.getValue().asOf();
         }
 
-        BigDecimal totalPnL = totalValuation.subtract(totalInvested);
+        // Return holding details. Valuation math runs on FixedPoint and rounds exactly like BigDecimal HALF_UP.
+        FixedPoint totalInvested = FixedPoint.ZERO;
+        FixedPoint totalValuation = FixedPoint.ZERO;
+        FixedPoint[] holdingValuations = new FixedPoint[holdings.size()];
 
-        List<HoldingDTO> holdingsListDTO = new ArrayList<>();
-        for (Holding holding : holdings) {
-            BigDecimal currentAssetPrice = priceCache.get(holding.getAsset());
+        for (int i = 0; i < holdings.size(); i++) {
+            HoldingPositionDTO holding = holdings.get(i);
+            FixedPoint currentAssetPrice = priceCache.get(holding.asset());
             if(currentAssetPrice == null){
-                throw new PriceUnavailableException("Prices unavailable for asset "+holding.getAsset());
+                throw new PriceUnavailableException("Prices unavailable for asset "+holding.asset());
             }
-            BigDecimal holdingInvestment = holding.getTotalCostBasis().setScale(2, RoundingMode.HALF_UP);
-            BigDecimal holdingValuation = currentAssetPrice.multiply(holding.getUnits()).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal unrealisedPnl = holdingValuation.subtract(holdingInvestment).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal portfolioWeight = totalValuation.compareTo(BigDecimal.ZERO) > 0 ? holdingValuation.divide(totalValuation, 2, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)) : BigDecimal.ZERO;
+            holdingValuations[i] = FixedPoint.of(holding.units()).multiply(currentAssetPrice, 2);
+            totalInvested = totalInvested.add(FixedPoint.of(holding.totalCostBasis()));
+            totalValuation = totalValuation.add(holdingValuations[i]);
+        }
+
+        List<HoldingDTO> holdingsListDTO = new ArrayList<>();
+        for (int i = 0; i < holdings.size(); i++) {
+            HoldingPositionDTO holding = holdings.get(i);
+            FixedPoint holdingValuation = holdingValuations[i];
+            BigDecimal holdingInvestment = holding.totalCostBasis().setScale(2, RoundingMode.HALF_UP);
+            BigDecimal unrealisedPnl = holdingValuation.subtract(FixedPoint.of(holdingInvestment)).toBigDecimal(2);
+            BigDecimal portfolioWeight = totalValuation.signum() > 0 ? holdingValuation.divide(totalValuation, 2).toBigDecimal(2).multiply(BigDecimal.valueOf(100)) : BigDecimal.ZERO;
 
             holdingsListDTO.add(
                     new HoldingDTO(
-                            holding.getAsset(),
-                            holding.getUnits(),
-                            holdingValuation,
+                            holding.asset(),
+                            holding.units(),
+                            holdingValuation.toBigDecimal(2),
                             holdingInvestment,
                             unrealisedPnl,
                             portfolioWeight));
         }
-        return new PortfolioDTO(totalInvested, totalValuation, totalPnL, holdingsListDTO);
+        Long priceAgeSeconds = pricesAsOf != null ? Math.max(0, Duration.between(pricesAsOf, Instant.now()).getSeconds()) : null;
+        BigDecimal invested = totalInvested.toBigDecimal();
+        BigDecimal valuation = totalValuation.toBigDecimal(2);
+        return new PortfolioDTO(invested, valuation, valuation.subtract(invested), holdingsListDTO, pricesAsOf, priceAgeSeconds);
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.event.HoldingsChangedEvent;
+import io.github.nahomgh.portfolio.event.PricesUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    Keeps each user's MAIN_PORTFOLIO row in 'portfolios' current so summary totals are a single indexed read.
+
+    - When a transaction changes a holding, only that user's row is rewritten, from their holdings and
+      the stored prices, once the transaction has committed. Rebuilding the one row from its few holdings
+      is a single indexed statement and cannot drift the way applying deltas can.
+    - When prices refresh, the new prices are upserted into 'asset_prices' and every portfolio holding
+      one of those assets is revalued in one set-based UPDATE. Only the refresh leader does this, off
+      the thread that published the prices; updates arriving while a revaluation runs are coalesced.
+
+    A new snapshot's valuation is NULL while any of the user's assets has no stored price yet; an existing
+    valuation is kept as it was rather than overwritten with NULL.
+ */
+@Service
+public class PortfolioSnapshotService {
+
+    private static final String REFRESH_USER_SNAPSHOT = """
+            INSERT INTO portfolios (created_at, user_id, portfolio_type, total_invested, total_valuation, total_pnl, last_updated)
+            SELECT now(), ?, 'MAIN_PORTFOLIO', t.invested, t.valuation, t.valuation - t.invested, now()
+            FROM (SELECT COALESCE(SUM(h.total_cost_basis), 0) AS invested,
+                         CASE WHEN COUNT(*) = COUNT(ap.asset) THEN COALESCE(SUM(ROUND(h.units * ap.price_usd, 2)), 0) END AS valuation
+                  FROM holdings h LEFT JOIN asset_prices ap ON ap.asset = h.asset
+                  WHERE h.user_id = ?) t
+            ON CONFLICT (portfolio_type, user_id) DO UPDATE SET total_invested = EXCLUDED.total_invested,
+                total_valuation = COALESCE(EXCLUDED.total_valuation, portfolios.total_valuation),
+                total_pnl = CASE WHEN EXCLUDED.total_valuation IS NULL THEN portfolios.total_pnl ELSE EXCLUDED.total_pnl END,
+                last_updated = CASE WHEN EXCLUDED.total_valuation IS NULL THEN portfolios.last_updated ELSE EXCLUDED.last_updated END
+            """;
+
+    private static final String UPSERT_PRICE = """
+            INSERT INTO asset_prices (asset, price_usd, as_of) VALUES (?, ?, ?)
+            ON CONFLICT (asset) DO UPDATE SET price_usd = EXCLUDED.price_usd, as_of = EXCLUDED.as_of
+            WHERE asset_prices.as_of < EXCLUDED.as_of
+            """;
+
+    private static final String REVALUE_HOLDERS = """
+            UPDATE portfolios p SET total_valuation = v.valuation, total_pnl = v.valuation - p.total_invested, last_updated = now()
+            FROM (SELECT h.user_id,
+                         CASE WHEN COUNT(*) = COUNT(ap.asset) THEN SUM(ROUND(h.units * ap.price_usd, 2)) END AS valuation
+                  FROM holdings h LEFT JOIN asset_prices ap ON ap.asset = h.asset
+                  WHERE h.user_id IN (SELECT user_id FROM holdings WHERE asset = ANY(?))
+                  GROUP BY h.user_id) v
+            WHERE p.user_id = v.user_id AND p.portfolio_type = 'MAIN_PORTFOLIO' AND v.valuation IS NOT NULL
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LeaderElectionService leaderElection;
+
+    private final Map<String, PriceQuoteDTO> pendingQuotes = new ConcurrentHashMap<>();
+    private final AtomicBoolean revaluationScheduled = new AtomicBoolean();
+    private final ExecutorService revaluationExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("portfolio-revaluation").daemon().factory());
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshotService.class);
+
+    public PortfolioSnapshotService(JdbcTemplate jdbcTemplate, LeaderElectionService leaderElection) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaderElection = leaderElection;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        try {
+            jdbcTemplate.update(REFRESH_USER_SNAPSHOT, event.userId(), event.userId());
+        } catch (RuntimeException e) {
+            // The transaction has already committed; the next price refresh revalues the row.
+            logger.warn("Portfolio snapshot update failed for user {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onPricesUpdated(PricesUpdatedEvent event) {
+        if (!leaderElection.isLeader())
+            return;
+        event.quotes().forEach((assetName, quote) -> pendingQuotes.merge(assetName, quote,
+                (current, updated) -> updated.asOf().isAfter(current.asOf()) ? updated : current));
+        if (revaluationScheduled.compareAndSet(false, true))
+            revaluationExecutor.execute(this::revaluePending);
+    }
+
+    @PreDestroy
+    public void shutdownRevaluationExecutor() {
+        revaluationExecutor.shutdownNow();
+    }
+
+    /*
+        Prices rounded to the NUMERIC(38,8) column scale. A quote below 5e-9 rounds to zero and would break
+        CHECK (price_usd > 0), failing the whole batch, so it is skipped (as HistoricalPriceStore does) and
+        its holders keep their previous valuation.
+     */
+    static Map<String, PriceQuoteDTO> storableQuotes(Map<String, PriceQuoteDTO> quotes) {
+        Map<String, PriceQuoteDTO> storable = new HashMap<>();
+        quotes.forEach((assetName, quote) -> {
+            BigDecimal price = quote.price().setScale(8, RoundingMode.HALF_UP);
+            if (price.signum() > 0)
+                storable.put(assetName, new PriceQuoteDTO(price, quote.asOf()));
+        });
+        return storable;
+    }
+
+    private void revaluePending() {
+        revaluationScheduled.set(false);
+        Map<String, PriceQuoteDTO> quotes = new HashMap<>();
+        for (String assetName : List.copyOf(pendingQuotes.keySet())) {
+            PriceQuoteDTO quote = pendingQuotes.remove(assetName);
+            if (quote != null)
+                quotes.put(assetName, quote);
+        }
+        Map<String, PriceQuoteDTO> storableQuotes = storableQuotes(quotes);
+        if (storableQuotes.isEmpty())
+            return;
+        try {
+            List<Map.Entry<String, PriceQuoteDTO>> rows = new ArrayList<>(storableQuotes.entrySet());
+            jdbcTemplate.batchUpdate(UPSERT_PRICE, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.getKey());
+                ps.setBigDecimal(2, row.getValue().price());
+                ps.setTimestamp(3, Timestamp.from(row.getValue().asOf()));
+            });
+            int revalued = jdbcTemplate.update(REVALUE_HOLDERS, ps ->
+                    ps.setArray(1, ps.getConnection().createArrayOf("varchar", storableQuotes.keySet().toArray())));
+            logger.debug("Revalued {} portfolio snapshots for {} price updates", revalued, storableQuotes.size());
+        } catch (RuntimeException e) {
+            logger.warn("Portfolio revaluation failed for {} assets: {}", quotes.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.exceptions.PriceProviderThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+    Token bucket shared by every outbound CoinGecko call, so the API-key quota is arbitrated between
+    user requests, the scheduled refresh and historical backfills.
+
+    Each priority may only take a token while enough remain above its floor:
+      INTERACTIVE - may drain the bucket, waits briefly for a token
+      REFRESH     - must leave the interactive reserve untouched, never waits (the cycle is deferred)
+      BACKFILL    - must leave the interactive and refresh reserves untouched, waits longer
+    A 429 from the provider empties the bucket and pauses all calls until Retry-After has passed.
+ */
+@Component
+public class PriceApiRateLimiter {
+
+    public enum Priority { INTERACTIVE, REFRESH, BACKFILL }
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final Map<Priority, Double> tokenFloors = new EnumMap<>(Priority.class);
+    private final Map<Priority, Duration> maxWaits = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> grantedCalls = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejectedCalls = new EnumMap<>(Priority.class);
+    private final Counter throttledResponses;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceApiRateLimiter.class);
+
+    public PriceApiRateLimiter(@Value("${price-provider.rate-limit.calls-per-minute:30}") int callsPerMinute,
+                               @Value("${price-provider.rate-limit.interactive-reserve:0.2}") double interactiveReserve,
+                               @Value("${price-provider.rate-limit.refresh-reserve:0.3}") double refreshReserve,
+                               @Value("${price-provider.rate-limit.interactive-max-wait:2s}") Duration interactiveMaxWait,
+                               @Value("${price-provider.rate-limit.backfill-max-wait:10s}") Duration backfillMaxWait,
+                               MeterRegistry meterRegistry) {
+        this.capacity = callsPerMinute;
+        this.refillPerNano = callsPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+
+        tokenFloors.put(Priority.INTERACTIVE, 0.0);
+        tokenFloors.put(Priority.REFRESH, capacity * interactiveReserve);
+        tokenFloors.put(Priority.BACKFILL, capacity * (interactiveReserve + refreshReserve));
+        maxWaits.put(Priority.INTERACTIVE, interactiveMaxWait);
+        maxWaits.put(Priority.REFRESH, Duration.ZERO);
+        maxWaits.put(Priority.BACKFILL, backfillMaxWait);
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            grantedCalls.put(priority, Counter.builder("price.provider.ratelimit.calls")
+                    .tags("priority", tag, "result", "granted").register(meterRegistry));
+            rejectedCalls.put(priority, Counter.builder("price.provider.ratelimit.calls")
+                    .tags("priority", tag, "result", "rejected").register(meterRegistry));
+        }
+        this.throttledResponses = Counter.builder("price.provider.ratelimit.throttled")
+                .description("429 responses received from the price provider")
+                .register(meterRegistry);
+        Gauge.builder("price.provider.ratelimit.tokens", this, PriceApiRateLimiter::availableTokens)
+                .register(meterRegistry);
+    }
+
+    /*
+        Blocks until a token is granted for the given priority or its max wait would be exceeded,
+        in which case the call is rejected with a PriceProviderThrottledException.
+     */
+    public void acquire(Priority priority) {
+        long deadline = System.nanoTime() + maxWaits.get(priority).toNanos();
+        while (true) {
+            long waitNanos = tryAcquire(priority);
+            if (waitNanos == 0) {
+                grantedCalls.get(priority).increment();
+                return;
+            }
+            if (System.nanoTime() + waitNanos > deadline) {
+                rejectedCalls.get(priority).increment();
+                throw new PriceProviderThrottledException("Price provider rate limit reached - please try again shortly");
+            }
+            try {
+                Thread.sleep(Duration.ofNanos(waitNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedCalls.get(priority).increment();
+                throw new PriceProviderThrottledException("Interrupted while waiting for price provider quota");
+            }
+        }
+    }
+
+    public synchronized void onThrottled(Duration retryAfter) {
+        throttledResponses.increment();
+        tokens = 0;
+        pausedUntilNanos = System.nanoTime() + retryAfter.toNanos();
+        lastRefillNanos = pausedUntilNanos;
+        logger.warn("Price provider returned 429 - pausing outbound calls for {}s", retryAfter.toSeconds());
+    }
+
+    public synchronized double availableTokens() {
+        refill(System.nanoTime());
+        return tokens;
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanos until one could be available for this priority.
+    private synchronized long tryAcquire(Priority priority) {
+        long now = System.nanoTime();
+        if (now < pausedUntilNanos)
+            return pausedUntilNanos - now;
+        refill(now);
+
+        double floor = tokenFloors.get(priority);
+        if (tokens - 1 >= floor) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((floor + 1 - tokens) / refillPerNano));
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
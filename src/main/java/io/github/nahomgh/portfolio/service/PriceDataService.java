@@ -1,31 +1,48 @@
 package io.github.nahomgh.portfolio.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nahomgh.portfolio.config.BulkCache;
 import io.github.nahomgh.portfolio.dto.AssetDTO;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.event.CacheInvalidatedEvent;
+import io.github.nahomgh.portfolio.event.PricesUpdatedEvent;
+import io.github.nahomgh.portfolio.exceptions.PriceProviderThrottledException;
+import io.github.nahomgh.portfolio.exceptions.PriceProviderUnavailableException;
 import io.github.nahomgh.portfolio.exceptions.PriceUnavailableException;
 import io.github.nahomgh.portfolio.exceptions.UnsupportedAssetException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.*;
 
 @Service
 public class PriceDataService {
@@ -47,65 +64,376 @@ public class PriceDataService {
 
     private ObjectMapper objectMapper;
 
-    private RedisCacheManager cacheManager;
+    private CacheManager cacheManager;
+
+    private final HistoricalPriceStore historicalPriceStore;
+
+    private final SingleFlight<String, PriceQuoteDTO> priceFetches;
+
+    private final PriceApiRateLimiter rateLimiter;
+
+    private final PriceRefreshPlanner refreshPlanner;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AssetIndexService assetIndexService;
+
+    private final LeaderElectionService leaderElection;
+
+    private final PriceProviderGuard providerGuard;
+
+    private final TopAssetTickers topAssetTickers;
+    private static final int REFRESH_BATCH_SIZE = 250;
+
+    // Last-known-good price per asset, kept beyond the cache TTL so it can be served while a refresh runs.
+    private final Map<String, PriceQuoteDTO> lastKnownPrices = new ConcurrentHashMap<>();
+    private final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet();
+    private final ExecutorService priceRefreshExecutor = new ThreadPoolExecutor(1, 2,
+            60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(32),
+            Thread.ofPlatform().name("price-refresh-", 0).daemon().factory());
+
+    @Value("${prices.max-staleness:24h}")
+    private Duration maxStaleness;
 
     private static final Logger logger = LoggerFactory.getLogger(PriceDataService.class);
-    private final Map<String, String> symbolToId = new ConcurrentHashMap<>();
 
-    public PriceDataService(RestTemplate restTemplate, ObjectMapper objectMapper, RedisCacheManager cacheManager){
+    public PriceDataService(@Qualifier("priceProviderRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper, CacheManager cacheManager,
+                            HistoricalPriceStore historicalPriceStore, PriceApiRateLimiter rateLimiter,
+                            PriceRefreshPlanner refreshPlanner, ApplicationEventPublisher eventPublisher,
+                            AssetIndexService assetIndexService, LeaderElectionService leaderElection,
+                            PriceProviderGuard providerGuard, TopAssetTickers topAssetTickers, MeterRegistry meterRegistry){
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
         this.cacheManager = cacheManager;
+        this.historicalPriceStore = historicalPriceStore;
+        this.priceFetches = new SingleFlight<>("prices", meterRegistry);
+        this.rateLimiter = rateLimiter;
+        this.refreshPlanner = refreshPlanner;
+        this.eventPublisher = eventPublisher;
+        this.assetIndexService = assetIndexService;
+        this.leaderElection = leaderElection;
+        this.providerGuard = providerGuard;
+        this.topAssetTickers = topAssetTickers;
 
     }
     public List<AssetDTO> getTopAssets(){
         URI uri = UriComponentsBuilder
                 .fromUriString(TOP_ASSETS_URI)
                 .build().toUri();
-        List<AssetDTO> listOfTopAssets = fetchMarketData(uri, new ParameterizedTypeReference<List<AssetDTO>>(){});
-        updatePriceCache(listOfTopAssets);
+        logger.info("TRIGGERED API CALL\nURI: "+uri.toString());
+        try {
+            rateLimiter.acquire(PriceApiRateLimiter.Priority.REFRESH);
+            List<AssetDTO> listOfTopAssets = providerGuard.call(() -> restTemplate.execute(
+                    uri,
+                    HttpMethod.GET,
+                    request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                    response -> readTopAssets(response.getBody())
+            ));
+            // Cached and published only once the connection and bulkhead permit have been released.
+            storeTopAssetQuotes(listOfTopAssets, Instant.now());
+            topAssetTickers.publish(listOfTopAssets);
+            logger.info("Asset List Prices Updated");
+            return listOfTopAssets;
+        }catch(PriceUnavailableException e){
+            throw e;
+        }catch(HttpClientErrorException.TooManyRequests e){
+            throw onProviderThrottled(e);
+        }catch(ResourceAccessException e){
+            throw new PriceUnavailableException("Unable to retrieve prices from API");
+        }catch(Exception e){
+            logger.error(e.getMessage()+"\n"+"-".repeat(10)+"\n");
+            throw new PriceUnavailableException("Unexpected Error occurred: "+e.getMessage());
+        }
+    }
+
+    /*
+        Streams the markets array token by token and keeps only id/symbol/current_price; every other
+        field is skipped without being materialised.
+     */
+    private List<AssetDTO> readTopAssets(InputStream responseBody) throws IOException {
+        List<AssetDTO> listOfTopAssets = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.createParser(responseBody)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new PriceUnavailableException("Failed to parse API Response");
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String assetName = null;
+                String symbol = null;
+                BigDecimal price = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "id" -> assetName = parser.getValueAsString();
+                        case "symbol" -> symbol = parser.getValueAsString();
+                        case "current_price" -> price = value.isNumeric() ? parser.getDecimalValue() : null;
+                        default -> parser.skipChildren();
+                    }
+                }
+
+                if (assetName == null || symbol == null || price == null)
+                    continue; // Coins without a current price cannot be cached.
+                listOfTopAssets.add(new AssetDTO(assetName, symbol, price));
+            }
+        }
         return listOfTopAssets;
     }
 
-    private void updatePriceCache(List<AssetDTO> listOfTopAssets) {
+    // Writes the refreshed prices to the cache in one pipelined batch, then notifies listeners.
+    private void storeTopAssetQuotes(List<AssetDTO> listOfTopAssets, Instant refreshedAt) {
+        Map<String, PriceQuoteDTO> refreshedQuotes = new HashMap<>();
+        for (AssetDTO asset : listOfTopAssets)
+            refreshedQuotes.put(asset.assetName(), updatePriceCache(asset, refreshedAt));
+        if(refreshedQuotes.isEmpty())
+            return;
+        putQuotes(cacheManager.getCache("prices"), refreshedQuotes);
+        try {
+            eventPublisher.publishEvent(new PricesUpdatedEvent(refreshedQuotes));
+        } catch (RuntimeException e) {
+            // The prices are cached; a failing listener must not fail the refresh.
+            logger.warn("Price update listener failed after top assets refresh: {}", e.getMessage());
+        }
+    }
+
+    private PriceQuoteDTO updatePriceCache(AssetDTO asset, Instant refreshedAt) {
+        PriceQuoteDTO quote = new PriceQuoteDTO(asset.price(), refreshedAt);
+        lastKnownPrices.put(asset.assetName(), quote);
+        return quote;
+    }
+
+    public BigDecimal getAssetPrice(String assetName){
+        return getAssetQuote(assetName).price();
+    }
+
+    /*
+        Stale-while-revalidate: a cache hit is returned as-is. On a miss the last-known-good price is
+        served immediately (if it is not older than the max staleness) and a background refresh is queued,
+        so callers never wait on the provider when any usable price exists. Only assets with no usable
+        price at all are fetched on the request thread.
+     */
+    public PriceQuoteDTO getAssetQuote(String assetName){
+        PriceQuoteDTO quote = getAssetQuotes(Set.of(assetName)).get(assetName);
+        if(quote == null){
+            logger.error("ERROR: '{}' Prices NOT Available.", assetName);
+            throw new PriceUnavailableException("Asset Prices Not Available");
+        }
+        return quote;
+    }
+
+    public Map<String, BigDecimal> getAssetPrices(Collection<String> assetNames){
+        Map<String, BigDecimal> assetPrices = new HashMap<>();
+        getAssetQuotes(assetNames).forEach((assetName, quote) -> assetPrices.put(assetName, quote.price()));
+        return assetPrices;
+    }
+
+    /*
+        Multi-get (one MGET) against the 'prices' cache. Every miss without a usable last-known price is collected
+        and fetched in a single 'simple/price' call (ids=bitcoin,ethereum,...) and then written back to the
+        cache together, so a cold portfolio costs one round trip instead of one per holding.
+     */
+    public Map<String, PriceQuoteDTO> getAssetQuotes(Collection<String> assetNames){
         Cache priceCache = cacheManager.getCache("prices");
+        Map<String, PriceQuoteDTO> assetQuotes = new HashMap<>();
+        Set<String> staleAssets = new LinkedHashSet<>();
+        Set<String> missingAssets = new LinkedHashSet<>();
+        Instant staleLimit = Instant.now().minus(maxStaleness);
+        Map<String, PriceQuoteDTO> cachedQuotes = cachedQuotes(priceCache, assetNames);
 
-        for(AssetDTO asset : listOfTopAssets) {
-            priceCache.put(asset.assetName(),asset.price());
-            symbolToId.put(asset.symbol().toUpperCase(), asset.assetName());
+        for(String assetName : assetNames){
+            PriceQuoteDTO cachedQuote = cachedQuotes.get(assetName);
+            if(cachedQuote != null){
+                assetQuotes.put(assetName, cachedQuote);
+                continue;
+            }
+            PriceQuoteDTO lastKnownQuote = lastKnownPrices.get(assetName);
+            if(lastKnownQuote != null && lastKnownQuote.asOf().isAfter(staleLimit)){
+                assetQuotes.put(assetName, lastKnownQuote);
+                staleAssets.add(assetName);
+            }else{
+                missingAssets.add(assetName);
+            }
         }
+
+        if(!staleAssets.isEmpty())
+            refreshInBackground(staleAssets);
+        if(!missingAssets.isEmpty()){
+            assetQuotes.putAll(loadAssetQuotes(missingAssets, PriceApiRateLimiter.Priority.INTERACTIVE));
+            for(String assetName : missingAssets){
+                if(!assetQuotes.containsKey(assetName)){
+                    logger.error("ERROR: Asset '{}' NOT Available.", assetName);
+                    throw new PriceUnavailableException("Asset Prices Not Available");
+                }
+            }
+        }
+        refreshPlanner.recordDemand(assetQuotes.keySet());
+        return assetQuotes;
     }
 
-    @Cacheable(value="prices", key="#assetName")
-    public BigDecimal getAssetPrice(String assetName){
-            URI uri = UriComponentsBuilder
-                    .fromUriString(SPECIFIC_ASSET_URI)
-                    .queryParam("ids", assetName) //totalCost?ids=bitcoin&vs_currencies=usd
-                    .queryParam("vs_currencies", "usd")
-                    .build().toUri();
+    /*
+        For batch jobs over every held asset: served from the cache and last-known prices, with misses fetched
+        in REFRESH_BATCH_SIZE chunks at REFRESH priority so the job cannot use up the interactive quota.
+        Not recorded as demand, since a batch read says nothing about which assets users are looking at.
+     */
+    public Map<String, PriceQuoteDTO> getAssetQuotesForBatch(Collection<String> assetNames){
+        Cache priceCache = cacheManager.getCache("prices");
+        Map<String, PriceQuoteDTO> assetQuotes = new HashMap<>();
+        List<String> missingAssets = new ArrayList<>();
+        Instant staleLimit = Instant.now().minus(maxStaleness);
+        Map<String, PriceQuoteDTO> cachedQuotes = cachedQuotes(priceCache, assetNames);
 
+        for(String assetName : assetNames){
+            PriceQuoteDTO quote = cachedQuotes.get(assetName);
+            if(quote == null){
+                PriceQuoteDTO lastKnownQuote = lastKnownPrices.get(assetName);
+                if(lastKnownQuote != null && lastKnownQuote.asOf().isAfter(staleLimit))
+                    quote = lastKnownQuote;
+            }
+            if(quote != null)
+                assetQuotes.put(assetName, quote);
+            else
+                missingAssets.add(assetName);
+        }
 
-            Map<String, Map<String, BigDecimal>> response =
-                    fetchMarketData(uri,
-                            new ParameterizedTypeReference<Map<String, Map<String, BigDecimal>>>() {
-                            });
-            if (response.isEmpty())
-                throw new UnsupportedAssetException("Unsupported Asset - Please Check Spelling Or Provide Another Asset");
-            Map<String, BigDecimal> response_map = response.get(assetName);
-            if(response_map.get(assetName) == null || !response_map.containsKey("usd")){
+        for(int from = 0; from < missingAssets.size(); from += REFRESH_BATCH_SIZE){
+            Set<String> batch = new LinkedHashSet<>(missingAssets.subList(from, Math.min(from + REFRESH_BATCH_SIZE, missingAssets.size())));
+            assetQuotes.putAll(loadAssetQuotes(batch, PriceApiRateLimiter.Priority.REFRESH));
+        }
+        for(String assetName : missingAssets){
+            if(!assetQuotes.containsKey(assetName)){
                 logger.error("ERROR: Asset '{}' NOT Available.", assetName);
-                 throw new PriceUnavailableException("Asset Prices Not Available");
-            }
-            BigDecimal assetPrice = response_map.get("usd");
-            if(assetPrice == null){
-                logger.error("ERROR: '{}' Prices NOT Available.", assetName);
                 throw new PriceUnavailableException("Asset Prices Not Available");
             }
-            return assetPrice;
+        }
+        return assetQuotes;
+    }
+
+    private Map<String, PriceQuoteDTO> cachedQuotes(Cache priceCache, Collection<String> assetNames){
+        Map<String, Object> cachedValues = new HashMap<>();
+        if(priceCache instanceof BulkCache bulkCache){
+            cachedValues.putAll(bulkCache.getAll(assetNames));
+        }else{
+            for(String assetName : assetNames){
+                Cache.ValueWrapper cachedValue = priceCache.get(assetName);
+                if(cachedValue != null && cachedValue.get() != null)
+                    cachedValues.put(assetName, cachedValue.get());
+            }
+        }
+
+        Map<String, PriceQuoteDTO> quotes = new HashMap<>();
+        cachedValues.forEach((assetName, value) -> {
+            if(!(value instanceof PriceQuoteDTO quote))
+                return;
+            lastKnownPrices.merge(assetName, quote, (current, cached) -> cached.asOf().isAfter(current.asOf()) ? cached : current);
+            quotes.put(assetName, quote);
+        });
+        return quotes;
     }
 
-    public BigDecimal getHistoricalAssetPrice(String assetNamePassed, LocalDate  transactionDate){
+    // One pipelined batch instead of a Redis round trip per price.
+    private void putQuotes(Cache priceCache, Map<String, PriceQuoteDTO> quotes){
+        if(priceCache instanceof BulkCache bulkCache)
+            bulkCache.putAll(quotes);
+        else
+            quotes.forEach(priceCache::put);
+    }
+
+    // Concurrent loads of the same asset share one outbound call.
+    private Map<String, PriceQuoteDTO> loadAssetQuotes(Set<String> assetNames, PriceApiRateLimiter.Priority priority){
+        Cache priceCache = cacheManager.getCache("prices");
+        return priceFetches.executeAll(assetNames, assetsToFetch -> {
+            Instant fetchedAt = Instant.now();
+            Map<String, PriceQuoteDTO> fetchedQuotes = new HashMap<>();
+            fetchAssetPrices(assetsToFetch, priority).forEach((assetName, price) -> {
+                PriceQuoteDTO quote = new PriceQuoteDTO(price, fetchedAt);
+                fetchedQuotes.put(assetName, quote);
+                lastKnownPrices.put(assetName, quote);
+            });
+            putQuotes(priceCache, fetchedQuotes);
+            if(!fetchedQuotes.isEmpty())
+                eventPublisher.publishEvent(new PricesUpdatedEvent(fetchedQuotes));
+            return fetchedQuotes;
+        });
+    }
+
+    /*
+        Prices written by another node (normally the refresh leader): re-read them from Redis so this
+        node's last-known prices are current and its local listeners (streams, tick history) see them.
+     */
+    @EventListener(condition = "#event.cacheName() == 'prices' && #event.keys() != null")
+    public void onRemotePricesUpdated(CacheInvalidatedEvent event){
+        Map<String, PriceQuoteDTO> refreshedQuotes = cachedQuotes(cacheManager.getCache("prices"), event.keys());
+        if(!refreshedQuotes.isEmpty())
+            eventPublisher.publishEvent(new PricesUpdatedEvent(refreshedQuotes));
+    }
+
+    private void refreshInBackground(Set<String> assetNames){
+        Set<String> assetsToRefresh = new LinkedHashSet<>();
+        for(String assetName : assetNames){
+            if(pendingRefreshes.add(assetName))
+                assetsToRefresh.add(assetName);
+        }
+        if(assetsToRefresh.isEmpty())
+            return;
+        try {
+            priceRefreshExecutor.execute(() -> {
+                try {
+                    loadAssetQuotes(assetsToRefresh, PriceApiRateLimiter.Priority.REFRESH);
+                } catch (RuntimeException e) {
+                    logger.warn("Background price refresh failed for {} - serving last known prices: {}", assetsToRefresh, e.getMessage());
+                } finally {
+                    pendingRefreshes.removeAll(assetsToRefresh);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRefreshes.removeAll(assetsToRefresh);
+            logger.debug("Background price refresh queue full, skipping refresh for {}", assetsToRefresh);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownRefreshExecutor(){
+        priceRefreshExecutor.shutdownNow();
+    }
+
+    private Map<String, BigDecimal> fetchAssetPrices(Set<String> assetNames, PriceApiRateLimiter.Priority priority){
+        URI uri = UriComponentsBuilder
+                .fromUriString(SPECIFIC_ASSET_URI)
+                .queryParam("ids", String.join(",", assetNames)) //totalCost?ids=bitcoin,ethereum&vs_currencies=usd
+                .queryParam("vs_currencies", "usd")
+                .build().toUri();
+
+        Map<String, Map<String, BigDecimal>> response =
+                fetchMarketData(uri,
+                        new ParameterizedTypeReference<Map<String, Map<String, BigDecimal>>>() {
+                        }, priority);
+        if (response == null || response.isEmpty())
+            throw new UnsupportedAssetException("Unsupported Asset - Please Check Spelling Or Provide Another Asset");
+
+        // Assets missing from the response are left out; callers decide whether that is an error.
+        Map<String, BigDecimal> fetchedPrices = new HashMap<>();
+        for(String assetName : assetNames){
+            BigDecimal assetPrice = extractUsdPrice(response, assetName);
+            if(assetPrice != null)
+                fetchedPrices.put(assetName, assetPrice);
+        }
+        return fetchedPrices;
+    }
+
+    private BigDecimal extractUsdPrice(Map<String, Map<String, BigDecimal>> response, String assetName){
+        Map<String, BigDecimal> response_map = response.get(assetName);
+        if(response_map == null || response_map.get("usd") == null){
+            logger.warn("WARNING: '{}' Prices NOT Available in API Response.", assetName);
+            return null;
+        }
+        return response_map.get("usd");
+    }
+
+    // Callers on a user's request pass INTERACTIVE; bulk loaders pass BACKFILL so they leave the reserves alone.
+    public BigDecimal getHistoricalAssetPrice(String assetNamePassed, LocalDate  transactionDate, PriceApiRateLimiter.Priority priority){
         String assetName = resolveAssetSymbol(assetNamePassed);
+        return historicalPriceStore.getPrice(assetName, transactionDate, () -> {
             URI uri = UriComponentsBuilder
                     .fromUriString(HISTORICAL_PRICE_URI)
                     .path(assetName)
@@ -113,33 +441,42 @@ public class PriceDataService {
                     .queryParam("date", transactionDate)
                     .build().toUri();
             logger.info("URI built: to query price for " + assetName + " at " + transactionDate.toString());
-            return fetchHistoricalMarketData(uri);
-
+            return fetchHistoricalMarketData(uri, priority);
+        });
     }
 
-    public BigDecimal fetchHistoricalMarketData(URI uri){
+    public BigDecimal fetchHistoricalMarketData(URI uri, PriceApiRateLimiter.Priority priority){
         // Headers
         HttpHeaders headers = new HttpHeaders();
         headers.set("x-cg-demo-api-key", API_KEY_COINGECKO);
 
         HttpEntity<String> httpEntity = new HttpEntity<>(headers); // Adds the headers above into the httpEntity
         try {
-            ResponseEntity<String> response = restTemplate.exchange(
+            rateLimiter.acquire(priority);
+            ResponseEntity<String> response = providerGuard.call(() -> restTemplate.exchange(
                     uri,
                     HttpMethod.GET,
                     httpEntity,
                     String.class
-            );
+            ));
 
             JsonNode jsonDataRoot = objectMapper.readTree(response.getBody());
-            BigDecimal assetPrice = jsonDataRoot
+            JsonNode priceNode = jsonDataRoot
                     .path("market_data")
                     .path("current_price")
-                    .path("usd")
-                    .decimalValue();
+                    .path("usd");
+            if(!priceNode.isNumber()){
+                logger.error("ERROR: Historical price missing from API Response");
+                throw new PriceUnavailableException("Historical Asset Price Not Available");
+            }
+            BigDecimal assetPrice = priceNode.decimalValue();
             logger.info("SUCCESS: Price returned! "+assetPrice);
             return assetPrice;
 
+        }catch(PriceUnavailableException e){
+            throw e;
+        }catch(HttpClientErrorException.TooManyRequests e){
+            throw onProviderThrottled(e);
         }catch(JsonProcessingException e) {
             logger.error("JSON Failed parsing: " + e.getMessage());
             throw new PriceUnavailableException("Failed to parse API Response");
@@ -150,8 +487,39 @@ public class PriceDataService {
             throw new PriceUnavailableException("Unexpected Error occurred: "+e.getMessage());
         }
     }
+    /*
+        One market_chart/range call for a whole date range. For each day the first price point at or after
+        00:00 UTC is kept, which matches what the /history endpoint returns for that date. Ranges longer
+        than 90 days come back as daily points, shorter ones as hourly points.
+     */
+    public Map<LocalDate, BigDecimal> fetchDailyPrices(String assetName, LocalDate from, LocalDate to){
+        URI uri = UriComponentsBuilder
+                .fromUriString(HISTORICAL_PRICE_URI)
+                .path(assetName)
+                .path("/market_chart/range")
+                .queryParam("vs_currency", "usd")
+                .queryParam("from", from.atStartOfDay(ZoneOffset.UTC).toEpochSecond())
+                .queryParam("to", to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond())
+                .build().toUri();
+
+        Map<String, List<List<BigDecimal>>> response = fetchMarketData(uri,
+                new ParameterizedTypeReference<Map<String, List<List<BigDecimal>>>>() {
+                }, PriceApiRateLimiter.Priority.BACKFILL);
+        if(response == null || response.get("prices") == null)
+            throw new PriceUnavailableException("Historical Asset Prices Not Available");
+
+        Map<LocalDate, BigDecimal> dailyPrices = new TreeMap<>();
+        for(List<BigDecimal> point : response.get("prices")){
+            if(point.size() < 2 || point.get(0) == null || point.get(1) == null || point.get(1).signum() <= 0)
+                continue;
+            LocalDate priceDate = Instant.ofEpochMilli(point.get(0).longValue()).atZone(ZoneOffset.UTC).toLocalDate();
+            if(!priceDate.isBefore(from) && !priceDate.isAfter(to))
+                dailyPrices.putIfAbsent(priceDate, point.get(1));
+        }
+        return dailyPrices;
+    }
 //
-    public <T> T fetchMarketData(URI uri, ParameterizedTypeReference<T> responseType){
+    public <T> T fetchMarketData(URI uri, ParameterizedTypeReference<T> responseType, PriceApiRateLimiter.Priority priority){
         logger.info("TRIGGERED API CALL\nURI: "+uri.toString());
          // Headers
         HttpHeaders headers = new HttpHeaders();
@@ -159,15 +527,20 @@ public class PriceDataService {
 
         HttpEntity<String> httpEntity = new HttpEntity<>(headers); // Adds the headers above into the httpEntity
         try {
-            ResponseEntity<T> response = restTemplate.exchange(
+            rateLimiter.acquire(priority);
+            ResponseEntity<T> response = providerGuard.call(() -> restTemplate.exchange(
                     uri,
                     HttpMethod.GET,
                     httpEntity,
                     responseType
-            );
+            ));
             logger.info("Asset List Prices Updated");
 
             return response.getBody();
+        }catch(PriceUnavailableException e){
+            throw e;
+        }catch(HttpClientErrorException.TooManyRequests e){
+            throw onProviderThrottled(e);
         }catch(ResourceAccessException e){
             throw new PriceUnavailableException("Unable to retrieve prices from API");
         }catch(Exception e){
@@ -175,17 +548,77 @@ public class PriceDataService {
             throw new PriceUnavailableException("Unexpected Error occurred: "+e.getMessage());
         }
     }
+    /*
+        Demand-driven refresh: only assets somebody holds or has recently requested are refreshed,
+        each on an interval that depends on how often it is requested, in batched multi-id calls.
+        Only the elected leader refreshes; other nodes read what it writes to the shared cache.
+     */
     @Scheduled(initialDelay = 0, fixedRate = 60000)
     public void refreshPriceData(){
-        logger.info("CACHE REFRESHING");
-        getTopAssets();
+        if(!leaderElection.isLeader())
+            return;
+        List<String> dueAssets = refreshPlanner.planRefresh();
+        logger.info("CACHE REFRESHING - {} assets due", dueAssets.size());
+        for(int from = 0; from < dueAssets.size(); from += REFRESH_BATCH_SIZE){
+            Set<String> batch = new LinkedHashSet<>(dueAssets.subList(from, Math.min(from + REFRESH_BATCH_SIZE, dueAssets.size())));
+            try {
+                Map<String, PriceQuoteDTO> refreshedQuotes = loadAssetQuotes(batch, PriceApiRateLimiter.Priority.REFRESH);
+                refreshPlanner.markRefreshed(refreshedQuotes.keySet(), Instant.now());
+            } catch (PriceProviderThrottledException e) {
+                logger.info("Price refresh deferred - provider quota reserved for interactive requests");
+                return;
+            } catch (PriceProviderUnavailableException e) {
+                logger.info("Price refresh skipped - {}", e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Price refresh failed for batch of {} assets: {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    // The top-assets list is no longer the refresh source, but still seeds the shared ticker map (and warms the cache).
+    // A missing map is seeded by syncTopAssetTickers instead of waiting for this schedule.
+    @Scheduled(initialDelay = 1800000, fixedRate = 1800000)
+    public void refreshTopAssets(){
+        if(!leaderElection.isLeader())
+            return;
+        try {
+            getTopAssets();
+        } catch (PriceProviderThrottledException e) {
+            logger.info("Top assets refresh deferred - provider quota reserved for interactive requests");
+        } catch (PriceProviderUnavailableException e) {
+            logger.info("Top assets refresh skipped - {}", e.getMessage());
+        }
+    }
+
+    // Feeds a 429 back into the rate limiter so every caller backs off until Retry-After has passed.
+    private PriceProviderThrottledException onProviderThrottled(HttpClientErrorException.TooManyRequests e){
+        Duration retryAfter = Duration.ofSeconds(60);
+        String retryAfterHeader = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if(retryAfterHeader != null && retryAfterHeader.trim().matches("\\d+"))
+            retryAfter = Duration.ofSeconds(Long.parseLong(retryAfterHeader.trim()));
+        rateLimiter.onThrottled(retryAfter);
+        return new PriceProviderThrottledException("Price provider rate limit reached - please try again shortly");
+    }
+
+    /*
+        Every node picks up the ticker map the leader last shared, not only the node that fetched it. When
+        there is none to pick up (first start against an empty Redis, or a new leader after it was lost) the
+        leader seeds it right away - from its own copy if it has one - rather than at the next half-hourly refresh.
+     */
+    @Scheduled(initialDelay = 0, fixedRate = 60000)
+    public void syncTopAssetTickers(){
+        if(topAssetTickers.reload() || !leaderElection.isLeader())
+            return;
+        if(topAssetTickers.isEmpty())
+            refreshTopAssets();
+        else
+            topAssetTickers.republish();
     }
 
+    // Tickers of top assets win over the index, since they are ranked by market cap; everything else is resolved locally.
     public String resolveAssetSymbol(String assetName){
-        String normalisedName = assetName.toUpperCase().trim();
-        if(symbolToId.containsKey(normalisedName))
-            return symbolToId.get(normalisedName);
-        return assetName.toLowerCase().trim();
+        return topAssetTickers.resolve(assetName).orElseGet(() -> assetIndexService.resolve(assetName));
     }
 
 }
@@ -0,0 +1,51 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.exceptions.PriceProviderUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/*
+    Isolates outbound price provider calls from the rest of the app. A bounded bulkhead caps how many
+    request threads can be waiting on the provider at once, and a circuit breaker stops calling it
+    altogether once timeouts/5xx pile up, probing again in half-open state after a cool-down. Rejected
+    calls fail immediately, so callers fall back to cached prices instead of holding a Tomcat thread.
+
+    Configured under resilience4j.*.instances.priceProvider; state is on /actuator/health and
+    /actuator/circuitbreakers.
+ */
+@Component
+public class PriceProviderGuard {
+
+    static final String INSTANCE = "priceProvider";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceProviderGuard.class);
+
+    public PriceProviderGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                logger.warn("Price provider circuit breaker: {}", event.getStateTransition()));
+    }
+
+    public <T> T call(Supplier<T> providerCall) {
+        try {
+            return circuitBreaker.executeSupplier(Bulkhead.decorateSupplier(bulkhead, providerCall));
+        } catch (CallNotPermittedException e) {
+            throw new PriceProviderUnavailableException("Price provider unavailable - serving cached prices only");
+        } catch (BulkheadFullException e) {
+            throw new PriceProviderUnavailableException("Price provider busy - please try again shortly");
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.repository.HoldingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Builds the price refresh watch set from the assets users actually hold plus assets requested within
+    the demand window, and decides which of them are due on each refresh tick:
+      hot  (smoothed requests per tick >= hot-threshold) - every hot-interval
+      warm (requested recently)                         - every warm-interval
+      cold (held but not requested)                     - every cold-interval, kept below the cache TTL
+
+    Demand is counted cluster-wide. Each node counts requests locally and every few seconds adds them to
+    a Redis hash (requests since the last plan) and sorted set (asset -> last requested, epoch millis);
+    the leader drains both when it plans, so assets only ever requested through other nodes are refreshed
+    too. While Redis is unreachable counts stay local and each node plans from its own demand.
+ */
+@Component
+public class PriceRefreshPlanner {
+
+    // Takes the request counts since the last plan and the assets requested since ARGV[1], atomically.
+    private static final RedisScript<List> COLLECT_DEMAND = new DefaultRedisScript<>("""
+            local requests = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', '(' .. ARGV[1])
+            return {requests, redis.call('ZRANGE', KEYS[2], 0, -1, 'WITHSCORES')}
+            """, List.class);
+
+    private final HoldingRepository holdingRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    private final Map<String, LongAdder> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<String, AssetDemand> demandByAsset = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastRefreshed = new ConcurrentHashMap<>();
+
+    @Value("${prices.refresh.hot-interval:60s}")
+    private Duration hotInterval;
+
+    @Value("${prices.refresh.warm-interval:2m}")
+    private Duration warmInterval;
+
+    @Value("${prices.refresh.cold-interval:4m}")
+    private Duration coldInterval;
+
+    @Value("${prices.refresh.demand-window:30m}")
+    private Duration demandWindow;
+
+    @Value("${prices.refresh.hot-threshold:5}")
+    private double hotThreshold;
+
+    @Value("${prices.refresh.demand-key:portfolio:price-demand}")
+    private String demandKey;
+
+    // Ticks never line up exactly with the interval, so an asset a few seconds short of due still counts as due.
+    private static final Duration SCHEDULE_SLACK = Duration.ofSeconds(5);
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceRefreshPlanner.class);
+
+    private static final class AssetDemand {
+        private double requestsPerTick;
+        private Instant lastRequestedAt;
+    }
+
+    public PriceRefreshPlanner(HoldingRepository holdingRepository, StringRedisTemplate redisTemplate) {
+        this.holdingRepository = holdingRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void recordDemand(Collection<String> assetNames) {
+        for (String assetName : assetNames)
+            pendingRequests.computeIfAbsent(assetName, name -> new LongAdder()).increment();
+    }
+
+    @Scheduled(initialDelay = 5000, fixedRate = 5000)
+    public void publishDemand() {
+        Map<String, Long> requests = drainPendingRequests();
+        if (requests.isEmpty())
+            return;
+        String requestedAt = String.valueOf(System.currentTimeMillis());
+        long keyTtlSeconds = demandWindow.multipliedBy(2).toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                requests.forEach((assetName, count) -> {
+                    stringConnection.hIncrBy(requestsKey(), assetName, count);
+                    stringConnection.zAdd(lastSeenKey(), Double.parseDouble(requestedAt), assetName);
+                });
+                stringConnection.expire(requestsKey(), keyTtlSeconds);
+                stringConnection.expire(lastSeenKey(), keyTtlSeconds);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Keep the counts for the next attempt; until then the leader only sees its own demand.
+            requests.forEach((assetName, count) -> pendingRequests.computeIfAbsent(assetName, name -> new LongAdder()).add(count));
+            logger.debug("Could not publish price demand: {}", e.getMessage());
+        }
+    }
+
+    public List<String> planRefresh() {
+        Instant now = Instant.now();
+        Instant demandCutoff = now.minus(demandWindow);
+
+        Map<String, Long> requests = new HashMap<>();
+        Map<String, Instant> lastRequested = new HashMap<>();
+        collectSharedDemand(demandCutoff, requests, lastRequested);
+        drainPendingRequests().forEach((assetName, count) -> {
+            requests.merge(assetName, count, Long::sum);
+            lastRequested.put(assetName, now);
+        });
+
+        lastRequested.forEach((assetName, requestedAt) -> {
+            AssetDemand demand = demandByAsset.computeIfAbsent(assetName, name -> new AssetDemand());
+            if (demand.lastRequestedAt == null || requestedAt.isAfter(demand.lastRequestedAt))
+                demand.lastRequestedAt = requestedAt;
+        });
+        demandByAsset.entrySet().removeIf(entry -> entry.getValue().lastRequestedAt.isBefore(demandCutoff));
+
+        Set<String> watchSet = new HashSet<>(holdingRepository.findDistinctAssets());
+        demandByAsset.forEach((assetName, demand) -> {
+            // Exponentially smoothed so one burst does not keep an asset hot for long.
+            demand.requestsPerTick = demand.requestsPerTick * 0.5 + requests.getOrDefault(assetName, 0L);
+            watchSet.add(assetName);
+        });
+        lastRefreshed.keySet().retainAll(watchSet);
+
+        List<String> dueAssets = new ArrayList<>();
+        for (String assetName : watchSet) {
+            Instant refreshedAt = lastRefreshed.get(assetName);
+            if (refreshedAt == null || !refreshedAt.plus(refreshInterval(assetName)).minus(SCHEDULE_SLACK).isAfter(now))
+                dueAssets.add(assetName);
+        }
+        return dueAssets;
+    }
+
+    public void markRefreshed(Collection<String> assetNames, Instant refreshedAt) {
+        for (String assetName : assetNames)
+            lastRefreshed.put(assetName, refreshedAt);
+    }
+
+    private void collectSharedDemand(Instant demandCutoff, Map<String, Long> requests, Map<String, Instant> lastRequested) {
+        try {
+            List<?> collected = redisTemplate.execute(COLLECT_DEMAND, List.of(requestsKey(), lastSeenKey()),
+                    String.valueOf(demandCutoff.toEpochMilli()));
+            if (collected == null || collected.size() < 2)
+                return;
+            List<?> requestCounts = (List<?>) collected.get(0);
+            for (int i = 0; i + 1 < requestCounts.size(); i += 2)
+                requests.merge(String.valueOf(requestCounts.get(i)), Long.parseLong(String.valueOf(requestCounts.get(i + 1))), Long::sum);
+            List<?> lastSeen = (List<?>) collected.get(1);
+            for (int i = 0; i + 1 < lastSeen.size(); i += 2)
+                lastRequested.put(String.valueOf(lastSeen.get(i)),
+                        Instant.ofEpochMilli((long) Double.parseDouble(String.valueOf(lastSeen.get(i + 1)))));
+        } catch (RuntimeException e) {
+            logger.debug("Shared price demand unavailable, planning from local demand: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Long> drainPendingRequests() {
+        // Counters are reset rather than removed so an increment racing the drain is never lost.
+        Map<String, Long> drained = new HashMap<>();
+        pendingRequests.forEach((assetName, requests) -> {
+            long count = requests.sumThenReset();
+            if (count > 0)
+                drained.put(assetName, count);
+        });
+        return drained;
+    }
+
+    private String requestsKey() {
+        return demandKey + ":requests";
+    }
+
+    private String lastSeenKey() {
+        return demandKey + ":last-seen";
+    }
+
+    private Duration refreshInterval(String assetName) {
+        AssetDemand demand = demandByAsset.get(assetName);
+        if (demand == null)
+            return coldInterval;
+        return demand.requestsPerTick >= hotThreshold ? hotInterval : warmInterval;
+    }
+}
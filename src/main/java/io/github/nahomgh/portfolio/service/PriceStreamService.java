@@ -0,0 +1,171 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.event.PricesUpdatedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Pushes price changes to clients subscribed over server-sent events. Connections are held by the
+    servlet container's async support, not by a platform thread, and only prices that actually changed
+    since the last broadcast are sent.
+
+    Each subscriber has its own bounded queue of events and its own virtual thread that writes them, so a
+    slow client only ever blocks its own writer. A client whose queue fills up has fallen behind and is
+    disconnected, and one whose write has not finished within the send timeout is dropped at the next heartbeat.
+ */
+@Service
+public class PriceStreamService {
+
+    private final Map<String, Set<Subscriber>> subscribersByAsset = new ConcurrentHashMap<>();
+    private final Map<SseEmitter, Subscriber> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, PriceQuoteDTO> lastBroadcast = new ConcurrentHashMap<>();
+
+    @Value("${prices.stream.timeout:30m}")
+    private Duration streamTimeout;
+
+    @Value("${prices.stream.send-timeout:10s}")
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    @Value("${prices.stream.queue-capacity:32}")
+    private int queueCapacity = 32;
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceStreamService.class);
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> assets;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> events;
+        private final Thread writer;
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, Set<String> assets) {
+            this.emitter = emitter;
+            this.assets = assets;
+            this.events = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+            this.writer = Thread.ofVirtual().name("price-stream-writer").unstarted(this::writeEvents);
+        }
+
+        private void enqueue(SseEmitter.SseEventBuilder event) {
+            if (!events.offer(event))
+                disconnect(this, new IOException("Price stream client fell behind"));
+        }
+
+        private void writeEvents() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    SseEmitter.SseEventBuilder event = events.take();
+                    sendStartedAt = System.currentTimeMillis();
+                    emitter.send(event);
+                    sendStartedAt = 0;
+                }
+            } catch (InterruptedException e) {
+                // Unsubscribed.
+            } catch (IOException | IllegalStateException e) {
+                disconnect(this, e);
+            }
+        }
+
+        private boolean isStalled(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > sendTimeout.toMillis();
+        }
+    }
+
+    // Asset names must already be resolved to provider ids, which is how price updates are keyed.
+    public SseEmitter subscribe(Collection<String> assetIds) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(assetIds));
+        subscriptions.put(emitter, subscriber);
+        subscriber.writer.start();
+        for (String assetName : subscriber.assets)
+            subscribersByAsset.computeIfAbsent(assetName, name -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+        emitter.onCompletion(() -> unsubscribe(emitter));
+        emitter.onTimeout(() -> unsubscribe(emitter));
+        emitter.onError(error -> unsubscribe(emitter));
+
+        // Start the client off with the latest prices this node has already broadcast.
+        Map<String, PriceQuoteDTO> snapshot = new HashMap<>();
+        for (String assetName : subscriber.assets) {
+            PriceQuoteDTO quote = lastBroadcast.get(assetName);
+            if (quote != null)
+                snapshot.put(assetName, quote);
+        }
+        if (!snapshot.isEmpty())
+            subscriber.enqueue(SseEmitter.event().name("price").data(snapshot));
+        return emitter;
+    }
+
+    @EventListener
+    public void onPricesUpdated(PricesUpdatedEvent event) {
+        // One event per subscriber containing every changed asset it follows.
+        Map<Subscriber, Map<String, PriceQuoteDTO>> updatesBySubscriber = new HashMap<>();
+        event.quotes().forEach((assetName, quote) -> {
+            PriceQuoteDTO previous = lastBroadcast.put(assetName, quote);
+            if (previous != null && previous.price().compareTo(quote.price()) == 0)
+                return;
+            Set<Subscriber> subscribers = subscribersByAsset.get(assetName);
+            if (subscribers == null)
+                return;
+            for (Subscriber subscriber : subscribers)
+                updatesBySubscriber.computeIfAbsent(subscriber, s -> new HashMap<>()).put(assetName, quote);
+        });
+        updatesBySubscriber.forEach((subscriber, updates) -> subscriber.enqueue(SseEmitter.event().name("price").data(updates)));
+    }
+
+    // Keeps idle connections open through proxies, detects clients that have gone away and drops stalled ones.
+    @Scheduled(fixedRate = 30000)
+    public void sendHeartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : List.copyOf(subscriptions.values())) {
+            if (subscriber.isStalled(now))
+                disconnect(subscriber, new IOException("Price stream send blocked for over " + sendTimeout));
+            else
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @PreDestroy
+    public void closeStreams() {
+        List.copyOf(subscriptions.keySet()).forEach(emitter -> {
+            unsubscribe(emitter);
+            emitter.complete();
+        });
+    }
+
+    private void disconnect(Subscriber subscriber, Exception cause) {
+        // Only the first of a failed write, a full queue and a stall check closes the emitter.
+        if (!unsubscribe(subscriber.emitter))
+            return;
+        logger.debug("Dropping price stream subscriber: {}", cause.getMessage());
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    private boolean unsubscribe(SseEmitter emitter) {
+        Subscriber subscriber = subscriptions.remove(emitter);
+        if (subscriber == null)
+            return false;
+        subscriber.writer.interrupt();
+        for (String assetName : subscriber.assets) {
+            subscribersByAsset.computeIfPresent(assetName, (name, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceTickDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Fixed-size ring buffer of (timestamp, price) ticks for one asset, backed by primitive arrays so it
+    never allocates after construction. Ticks closer together than minSpacingMillis replace the latest
+    tick instead of being appended, so the buffer always covers capacity * minSpacing of history.
+ */
+public class PriceTickBuffer {
+
+    private final long[] timestamps;
+    private final double[] prices;
+    private final long minSpacingMillis;
+
+    private int head; // next slot to write
+    private int size;
+
+    public PriceTickBuffer(int capacity, long minSpacingMillis) {
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+        this.minSpacingMillis = minSpacingMillis;
+    }
+
+    public synchronized void record(long timestampMillis, double price) {
+        if (size > 0) {
+            int latest = (head - 1 + timestamps.length) % timestamps.length;
+            if (timestampMillis < timestamps[latest])
+                return; // Out-of-order tick, newer data already recorded.
+            if (timestampMillis - timestamps[latest] < minSpacingMillis) {
+                timestamps[latest] = timestampMillis;
+                prices[latest] = price;
+                return;
+            }
+        }
+        timestamps[head] = timestampMillis;
+        prices[head] = price;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length)
+            size++;
+    }
+
+    // Ticks at or after sinceMillis, oldest first.
+    public synchronized List<PriceTickDTO> ticksSince(long sinceMillis) {
+        List<PriceTickDTO> ticks = new ArrayList<>();
+        int oldest = (head - size + timestamps.length) % timestamps.length;
+        for (int i = 0; i < size; i++) {
+            int slot = (oldest + i) % timestamps.length;
+            if (timestamps[slot] >= sinceMillis)
+                ticks.add(new PriceTickDTO(Instant.ofEpochMilli(timestamps[slot]), prices[slot]));
+        }
+        return ticks;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
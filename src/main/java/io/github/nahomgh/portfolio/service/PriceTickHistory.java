@@ -0,0 +1,43 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceTickDTO;
+import io.github.nahomgh.portfolio.event.PricesUpdatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Keeps recent intraday price history per asset in memory, fed by every price refresh,
+    so dashboards can draw sparklines without calling the provider's chart endpoints.
+ */
+@Service
+public class PriceTickHistory {
+
+    private final Map<String, PriceTickBuffer> buffers = new ConcurrentHashMap<>();
+
+    @Value("${prices.ticks.capacity:1440}")
+    private int capacity;
+
+    @Value("${prices.ticks.min-spacing:60s}")
+    private Duration minSpacing;
+
+    @EventListener
+    public void onPricesUpdated(PricesUpdatedEvent event) {
+        event.quotes().forEach((assetName, quote) ->
+                buffers.computeIfAbsent(assetName, name -> new PriceTickBuffer(capacity, minSpacing.toMillis()))
+                        .record(quote.asOf().toEpochMilli(), quote.price().doubleValue()));
+    }
+
+    public List<PriceTickDTO> getTicks(String assetName, Duration window) {
+        PriceTickBuffer buffer = buffers.get(assetName);
+        if (buffer == null)
+            return List.of();
+        return buffer.ticksSince(Instant.now().minus(window).toEpochMilli());
+    }
+}
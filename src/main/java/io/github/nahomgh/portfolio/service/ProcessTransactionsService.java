@@ -3,16 +3,17 @@ package io.github.nahomgh.portfolio.service;
 import io.github.nahomgh.portfolio.auth.domain.User;
 import io.github.nahomgh.portfolio.entity.Holding;
 import io.github.nahomgh.portfolio.entity.TransactionType;
+import io.github.nahomgh.portfolio.event.HoldingsChangedEvent;
 import io.github.nahomgh.portfolio.exceptions.InsufficientFundsException;
 import io.github.nahomgh.portfolio.exceptions.ResourceNotFoundException;
 import io.github.nahomgh.portfolio.repository.HoldingRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import java.math.RoundingMode;
 import java.math.BigDecimal;
 import java.util.Optional;
 
@@ -21,10 +22,13 @@ public class ProcessTransactionsService {
 
     private final HoldingRepository holdingRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     private final Logger logger = LoggerFactory.getLogger(ProcessTransactionsService.class);
 
-    public ProcessTransactionsService(HoldingRepository holdingRepository) {
+    public ProcessTransactionsService(HoldingRepository holdingRepository, ApplicationEventPublisher eventPublisher) {
         this.holdingRepository = holdingRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Retryable(
@@ -47,16 +51,16 @@ public class ProcessTransactionsService {
                 BigDecimal updatedAvgCostBasis;
 
                 if(transactionType == TransactionType.BUY){
-                    updatedTotalCost = currentTotalCost.add(totalCost);
+                    updatedTotalCost = FixedPoint.of(currentTotalCost).add(FixedPoint.of(totalCost)).toBigDecimal();
                     if(updatedTotalCost.compareTo(BigDecimal.ZERO) > 0){
-                        updatedAvgCostBasis = updatedTotalCost.divide(updatedTotalUnits, 8, RoundingMode.HALF_UP);
+                        updatedAvgCostBasis = averageCost(updatedTotalCost, updatedTotalUnits);
                     }
                     else{
                         updatedAvgCostBasis = holding.getAvgCostBasis();
                     }
                 }else{
                     updatedTotalCost = currentTotalCost;
-                    updatedAvgCostBasis = updatedTotalCost.divide(updatedTotalUnits, 8, RoundingMode.HALF_UP);
+                    updatedAvgCostBasis = averageCost(updatedTotalCost, updatedTotalUnits);
                 }
                 holding.setUnits(updatedTotalUnits);
                 holding.setTotalCostBasis(updatedTotalCost);
@@ -85,7 +89,9 @@ public class ProcessTransactionsService {
                 if(updatedUnits.compareTo(BigDecimal.ZERO)==0){
                     holdingRepository.delete(holding);
                 }else{
-                    BigDecimal updatedTotalCostAfterSell = updatedUnits.multiply(holding.getAvgCostBasis());
+                    // Rounded to the column scale here rather than by the database on write.
+                    BigDecimal updatedTotalCostAfterSell = FixedPoint.of(updatedUnits)
+                            .multiply(FixedPoint.of(holding.getAvgCostBasis()), FixedPoint.SCALE).toBigDecimal();
                     holding.setUnits(updatedUnits);
                     holding.setTotalCostBasis(updatedTotalCostAfterSell);
                     holdingRepository.save(holding);
@@ -99,6 +105,11 @@ public class ProcessTransactionsService {
             logger.error(unknown_transaction_msg);
             throw new IllegalArgumentException(unknown_transaction_msg);
         }
+        eventPublisher.publishEvent(new HoldingsChangedEvent(user.getId(), assetName));
+    }
 
+    // Same as totalCost.divide(units, 8, HALF_UP).
+    private static BigDecimal averageCost(BigDecimal totalCost, BigDecimal units){
+        return FixedPoint.of(totalCost).divide(FixedPoint.of(units), FixedPoint.SCALE).toBigDecimal();
     }
 }
@@ -0,0 +1,111 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+    Collapses concurrent loads of the same key into one call. The first caller for a key runs the loader,
+    every caller that arrives while it is still running waits on the same future and receives the same
+    result (or exception). Nothing is kept once the load completes - caching is left to the caller.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter collapsedCalls;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.collapsedCalls = Counter.builder("singleflight.collapsed")
+                .tag("name", name)
+                .description("Callers that waited on an in-flight load instead of starting their own")
+                .register(meterRegistry);
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .tag("name", name)
+                .description("Loads currently in flight")
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            collapsedCalls.increment();
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /*
+        Batch variant: keys nobody is loading yet are handed to the batch loader in a single call,
+        keys already in flight are joined rather than fetched again.
+     */
+    public Map<K, V> executeAll(Collection<K> keys, Function<Set<K>, Map<K, V>> batchLoader) {
+        Map<K, CompletableFuture<V>> ownedLoads = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> joinedLoads = new HashMap<>();
+
+        for (K key : keys) {
+            if (ownedLoads.containsKey(key) || joinedLoads.containsKey(key))
+                continue;
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+            if (existing != null) {
+                collapsedCalls.increment();
+                joinedLoads.put(key, existing);
+            } else {
+                ownedLoads.put(key, future);
+            }
+        }
+
+        Map<K, V> results = new HashMap<>();
+        if (!ownedLoads.isEmpty()) {
+            try {
+                Map<K, V> loaded = batchLoader.apply(ownedLoads.keySet());
+                ownedLoads.forEach((key, future) -> {
+                    V value = loaded.get(key);
+                    future.complete(value);
+                    if (value != null)
+                        results.put(key, value);
+                });
+            } catch (RuntimeException e) {
+                ownedLoads.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                ownedLoads.forEach(inFlight::remove);
+            }
+        }
+
+        joinedLoads.forEach((key, future) -> {
+            V value = await(future);
+            if (value != null)
+                results.put(key, value);
+        });
+        return results;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+}
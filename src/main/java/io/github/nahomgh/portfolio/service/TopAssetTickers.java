@@ -0,0 +1,86 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.AssetDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+    Ticker -> provider id for the top assets, ranked by market cap, so a ticker shared by several coins
+    resolves to the biggest one. The leader builds it from the top-assets call and swaps it into a Redis
+    hash in one step (RENAME); every node reloads its copy from there, so a ticker resolves to the same id
+    whichever node serves the request. While Redis is unreachable each node keeps its last copy.
+ */
+@Component
+public class TopAssetTickers {
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${prices.top-assets.tickers-key:portfolio:top-asset-tickers}")
+    private String tickersKey;
+
+    private volatile Map<String, String> symbolToId = Map.of();
+
+    private static final Logger logger = LoggerFactory.getLogger(TopAssetTickers.class);
+
+    public TopAssetTickers(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public Optional<String> resolve(String symbol) {
+        return Optional.ofNullable(symbolToId.get(symbol.toUpperCase().trim()));
+    }
+
+    public boolean isEmpty() {
+        return symbolToId.isEmpty();
+    }
+
+    // Called by the leader with the top assets in market-cap order.
+    public void publish(List<AssetDTO> rankedAssets) {
+        Map<String, String> tickers = new HashMap<>();
+        for (AssetDTO asset : rankedAssets)
+            tickers.putIfAbsent(asset.symbol().toUpperCase(), asset.assetName());
+        if (tickers.isEmpty())
+            return;
+        symbolToId = Map.copyOf(tickers);
+        share(tickers);
+    }
+
+    // Re-shares this node's copy when the shared map has gone missing.
+    public void republish() {
+        Map<String, String> tickers = symbolToId;
+        if (!tickers.isEmpty())
+            share(tickers);
+    }
+
+    // Returns false when there is no shared map to load (none published yet, or Redis unreachable).
+    public boolean reload() {
+        try {
+            Map<Object, Object> sharedTickers = redisTemplate.opsForHash().entries(tickersKey);
+            if (sharedTickers.isEmpty())
+                return false;
+            Map<String, String> tickers = new HashMap<>();
+            sharedTickers.forEach((symbol, assetName) -> tickers.put((String) symbol, (String) assetName));
+            symbolToId = Map.copyOf(tickers);
+            return true;
+        } catch (RuntimeException e) {
+            logger.debug("Could not load shared top asset tickers, keeping {} local: {}", symbolToId.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void share(Map<String, String> tickers) {
+        String stagingKey = tickersKey + ":staging";
+        try {
+            redisTemplate.delete(stagingKey);
+            redisTemplate.opsForHash().putAll(stagingKey, tickers);
+            redisTemplate.rename(stagingKey, tickersKey);
+        } catch (RuntimeException e) {
+            logger.warn("Could not share top asset tickers: {}", e.getMessage());
+        }
+    }
+}
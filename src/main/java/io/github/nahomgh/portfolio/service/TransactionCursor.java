@@ -0,0 +1,47 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.exceptions.InputValidationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    Continuation token for scrolling a user's transactions: the (txn_timestamp, id) of the last row
+    returned plus the sort direction, base64url encoded. Clients treat it as opaque and pass it back
+    unchanged; the direction travels with it so a page cannot be continued in the opposite order.
+ */
+record TransactionCursor(Sort.Direction direction, Instant transactionTimestamp, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    String encode() {
+        String plain = (direction == Sort.Direction.DESC ? "d" : "a") + SEPARATOR + transactionTimestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static TransactionCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3 || !(parts[0].equals("a") || parts[0].equals("d")))
+                throw new IllegalArgumentException("Malformed cursor");
+            return new TransactionCursor(parts[0].equals("d") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                    Instant.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InputValidationException("Invalid cursor");
+        }
+    }
+
+    KeysetScrollPosition toScrollPosition() {
+        // Key names are entity properties and must match the sort.
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("transactionTimestamp", transactionTimestamp);
+        keys.put("id", id);
+        return ScrollPosition.forward(keys);
+    }
+}
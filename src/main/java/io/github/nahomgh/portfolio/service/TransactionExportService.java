@@ -0,0 +1,122 @@
+package io.github.nahomgh.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.github.nahomgh.portfolio.dto.TransactionDTO;
+import io.github.nahomgh.portfolio.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+    Writes a user's whole transaction history as CSV or NDJSON straight to the response. Rows come from a
+    forward-only stream of DTO projections read with a JDBC fetch size, inside a read-only transaction (the
+    PostgreSQL driver only uses a cursor when autocommit is off), so memory use does not grow with the
+    length of the history. Output is optionally gzipped as it is written.
+ */
+@Service
+public class TransactionExportService {
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String fileExtension;
+
+        ExportFormat(String contentType, String fileExtension) {
+            this.contentType = contentType;
+            this.fileExtension = fileExtension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String fileExtension() {
+            return fileExtension;
+        }
+    }
+
+    private static final String CSV_HEADER = "asset,transaction_type,units,market_value,price_per_unit,transaction_date";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionExportService.class);
+
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Long userId, ExportFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        int rows = 0;
+        try (Stream<TransactionDTO> transactions = transactionRepository.streamByUserId(userId)) {
+            Iterator<TransactionDTO> iterator = transactions.iterator();
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                while (iterator.hasNext()) {
+                    writeCsvRow(writer, iterator.next());
+                    rows++;
+                }
+            } else {
+                SequenceWriter lines = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                while (iterator.hasNext()) {
+                    lines.write(iterator.next());
+                    rows++;
+                }
+                lines.flush();
+                if (rows > 0)
+                    writer.write('\n');
+            }
+        }
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipStream)
+            gzipStream.finish();
+        logger.debug("Exported {} transactions for user {} as {}", rows, userId, format);
+    }
+
+    private static void writeCsvRow(Writer writer, TransactionDTO transaction) throws IOException {
+        writer.write(csvField(transaction.asset()));
+        writer.write(',');
+        writer.write(transaction.transactionType() == null ? "" : transaction.transactionType().name());
+        writer.write(',');
+        writer.write(plain(transaction.units()));
+        writer.write(',');
+        writer.write(plain(transaction.marketValue()));
+        writer.write(',');
+        writer.write(plain(transaction.pricePerUnit()));
+        writer.write(',');
+        writer.write(transaction.transactionDate() == null ? "" : transaction.transactionDate().toString());
+        writer.write('\n');
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised so spreadsheets do not evaluate it.
+    private static String csvField(String value) {
+        if (value == null)
+            return "";
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0)
+            value = "'" + value;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
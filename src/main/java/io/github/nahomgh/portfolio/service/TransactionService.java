@@ -2,6 +2,7 @@ package io.github.nahomgh.portfolio.service;
 
 import io.github.nahomgh.portfolio.auth.domain.User;
 import io.github.nahomgh.portfolio.dto.TransactionDTO;
+import io.github.nahomgh.portfolio.dto.TransactionWindowDTO;
 import io.github.nahomgh.portfolio.entity.TransactionType;
 import io.github.nahomgh.portfolio.exceptions.DuplicateTransactionException;
 import io.github.nahomgh.portfolio.exceptions.IdempotencyKeyConflictException;
@@ -17,12 +18,17 @@ import org.apache.commons.text.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedModel;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -39,15 +45,18 @@ public class TransactionService {
     private final PriceDataService priceDataService;
     private final UserRepository userRepository;
     private final ProcessTransactionsService processTransaction;
+    private final TransactionTemplate transactionTemplate;
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
 
     public TransactionService(TransactionRepository transactionRepository, PriceDataService priceDataService,
-            UserRepository userRepository, ProcessTransactionsService processTransaction) {
+            UserRepository userRepository, ProcessTransactionsService processTransaction,
+            PlatformTransactionManager transactionManager) {
         this.transactionRepository = transactionRepository;
         this.priceDataService = priceDataService;
         this.userRepository = userRepository;
         this.processTransaction = processTransaction;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Page<TransactionDTO> getTransactions(Long userId, Pageable pageable) {
@@ -59,30 +68,69 @@ public class TransactionService {
         throw new UserNotFoundException("User not Found");
     }
 
-    @Transactional(rollbackFor = Exception.class)
+    /*
+        Cursor-based alternative to getTransactions: seeks on (txn_timestamp, id) through idx_txn_user_time,
+        so every page costs the same however deep it is, and no total count is run. Pass the returned
+        nextCursor to get the following page; a cursor keeps the direction it was created with.
+     */
+    public TransactionWindowDTO scrollTransactions(Long userId, String cursor, int size, Sort.Direction direction) {
+        TransactionCursor start = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        if (start != null)
+            direction = start.direction();
+        ScrollPosition position = start == null ? ScrollPosition.keyset() : start.toScrollPosition();
+        Window<Transaction> window = transactionRepository.findByUserId(userId, position,
+                Sort.by(direction, "transactionTimestamp", "id"), Limit.of(size));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Transaction last = window.getContent().getLast();
+            nextCursor = new TransactionCursor(direction, last.getTransactionTimestamp(), last.getId()).encode();
+        }
+        return new TransactionWindowDTO(window.map(TransactionDTO::new).getContent(), nextCursor, nextCursor != null);
+    }
+
+    /*
+        The price is looked up before the database transaction opens, at INTERACTIVE priority, so a slow or
+        rate-limited provider call never holds a connection. Everything that reads or writes the database
+        then runs in one transaction. A retried request is rejected by a plain key lookup before the price is
+        fetched; the check inside the transaction stays the authoritative one.
+     */
     public TransactionDTO createTransaction(@Valid TransactionRequest request, final String idempotencyKey,
             Long userId) {
-        User userInfo = userRepository.findById(userId).orElseThrow(
-                () -> new UserNotFoundException("User with ID " + userId + " NOT Found. Transaction NOT processed."));
-        Optional<Transaction> existingTransaction = transactionRepository
-                .findTransactionByUserIdAndClientIdempotencyKey(userId, idempotencyKey);
-        if (existingTransaction.isPresent()) {
-            logger.info("INFO: Transaction already exists - returning transaction DTO to user");
-            throw new DuplicateTransactionException("Transaction Already Exists",
-                    new TransactionDTO(existingTransaction.get()));
-        }
+        rejectDuplicate(userId, idempotencyKey);
         String assetName = priceDataService.resolveAssetSymbol(StringEscapeUtils.escapeHtml4(request.asset()));
-        BigDecimal assetPrice = BigDecimal.ZERO;
+        BigDecimal assetPrice;
         boolean isOldTransaction = false;
         if (request.transactionDate() != null && request.transactionDate().isBefore(LocalDate.now())) {
             if(request.transactionDate().isBefore(LocalDate.now().minusYears(1))) {
                 throw new InputValidationException("Transactions Older than 1 year are NOT allowed.");
             }
-            assetPrice = priceDataService.getHistoricalAssetPrice(assetName, request.transactionDate());
+            assetPrice = priceDataService.getHistoricalAssetPrice(assetName, request.transactionDate(),
+                    PriceApiRateLimiter.Priority.INTERACTIVE);
             isOldTransaction = true;
         } else {
             assetPrice = priceDataService.getAssetPrice(assetName);
         }
+        boolean backdated = isOldTransaction;
+        return transactionTemplate.execute(status -> recordTransaction(request, idempotencyKey, userId,
+                assetName, assetPrice, backdated));
+    }
+
+    private void rejectDuplicate(Long userId, String idempotencyKey) {
+        Optional<Transaction> existingTransaction = transactionRepository
+                .findTransactionByUserIdAndClientIdempotencyKey(userId, idempotencyKey);
+        if (existingTransaction.isPresent()) {
+            logger.info("INFO: Transaction already exists - returning transaction DTO to user");
+            throw new DuplicateTransactionException("Transaction Already Exists",
+                    new TransactionDTO(existingTransaction.get()));
+        }
+    }
+
+    private TransactionDTO recordTransaction(TransactionRequest request, String idempotencyKey, Long userId,
+                                             String assetName, BigDecimal assetPrice, boolean isOldTransaction) {
+        User userInfo = userRepository.findById(userId).orElseThrow(
+                () -> new UserNotFoundException("User with ID " + userId + " NOT Found. Transaction NOT processed."));
+        rejectDuplicate(userId, idempotencyKey);
         BigDecimal total_cost = request.transactionType() != TransactionType.AIRDROP
                 ? assetPrice.multiply(request.units())
                 : BigDecimal.ZERO;
@@ -0,0 +1,281 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.config.CacheInvalidationBus;
+import io.github.nahomgh.portfolio.dto.HoldingPositionDTO;
+import io.github.nahomgh.portfolio.dto.PortfolioSummaryDTO;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.event.CacheInvalidatedEvent;
+import io.github.nahomgh.portfolio.event.HoldingsChangedEvent;
+import io.github.nahomgh.portfolio.event.PricesUpdatedEvent;
+import io.github.nahomgh.portfolio.repository.HoldingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+    In-memory running portfolio totals. Each loaded user's invested and valuation totals are kept with a
+    reverse index from asset to (user, units); a price update walks only the holders of the assets that
+    changed and adds round(units * new price) - round(units * old price) to their valuation, so totals
+    match the per-holding rounding of the full portfolio view. The math runs on FixedPoint; reading a
+    user's totals is a single map lookup.
+
+    Users are loaded lazily from their holdings on first read and dropped whenever their holdings change
+    (locally, or on another node via the invalidation bus), to be reloaded on the next read. Writers are
+    serialised by one lock; readers never take it.
+ */
+@Service
+public class ValuationEngine {
+
+    record Position(String asset, FixedPoint units) {
+    }
+
+    record UserValuation(FixedPoint totalInvested, FixedPoint totalValuation, Instant asOf, long lastReadAt) {
+
+        UserValuation withValuation(FixedPoint valuation, Instant updatedAt) {
+            return new UserValuation(totalInvested, valuation, updatedAt, lastReadAt);
+        }
+    }
+
+    private final HoldingRepository holdingRepository;
+    private final PriceDataService priceDataService;
+
+    private final Map<Long, UserValuation> valuations = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Guarded by writeLock. A generation is only kept while a load of that user is in flight, since only
+    // a load can observe it; both maps therefore stay as small as the number of concurrent loads.
+    private final Map<Long, Long> generations = new HashMap<>();
+    private final Map<Long, Integer> loadsInFlight = new HashMap<>();
+    private final Map<String, Map<Long, FixedPoint>> holdersByAsset = new HashMap<>();
+    private final Map<Long, List<Position>> positionsByUser = new HashMap<>();
+    private final Map<String, FixedPoint> appliedPrices = new HashMap<>();
+    private final Map<String, Instant> appliedPriceTimes = new HashMap<>();
+
+    @Value("${valuation.max-users:100000}")
+    private int maxUsers = 100000;
+
+    private static final Logger logger = LoggerFactory.getLogger(ValuationEngine.class);
+
+    public ValuationEngine(HoldingRepository holdingRepository, PriceDataService priceDataService) {
+        this.holdingRepository = holdingRepository;
+        this.priceDataService = priceDataService;
+    }
+
+    public PortfolioSummaryDTO getSummary(Long userId) {
+        UserValuation valuation = valuations.get(userId);
+        if (valuation == null)
+            valuation = load(userId);
+        else
+            valuations.computeIfPresent(userId, (id, current) -> new UserValuation(current.totalInvested(),
+                    current.totalValuation(), current.asOf(), System.currentTimeMillis()));
+
+        BigDecimal totalInvested = valuation.totalInvested().toBigDecimal();
+        BigDecimal totalValuation = valuation.totalValuation().toBigDecimal(2);
+        return new PortfolioSummaryDTO(totalInvested, totalValuation,
+                totalValuation.subtract(totalInvested), valuation.asOf());
+    }
+
+    @EventListener
+    public void onPricesUpdated(PricesUpdatedEvent event) {
+        writeLock.lock();
+        try {
+            event.quotes().forEach(this::applyPrice);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHoldingsChanged(HoldingsChangedEvent event) {
+        invalidate(event.userId());
+    }
+
+    @EventListener(condition = "#event.cacheName() == '" + CacheInvalidationBus.HOLDINGS + "'")
+    public void onRemoteHoldingsChanged(CacheInvalidatedEvent event) {
+        if (event.keys() == null) {
+            writeLock.lock();
+            try {
+                List.copyOf(positionsByUser.keySet()).forEach(this::invalidate);
+            } finally {
+                writeLock.unlock();
+            }
+            return;
+        }
+        for (String userId : event.keys())
+            invalidate(Long.valueOf(userId));
+    }
+
+    int loadedUsers() {
+        return valuations.size();
+    }
+
+    int pricedAssets() {
+        writeLock.lock();
+        try {
+            return appliedPrices.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private UserValuation load(Long userId) {
+        long generation;
+        writeLock.lock();
+        try {
+            generation = generations.getOrDefault(userId, 0L);
+            loadsInFlight.merge(userId, 1, Integer::sum);
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            return load(userId, generation);
+        } finally {
+            writeLock.lock();
+            try {
+                if (loadsInFlight.merge(userId, -1, Integer::sum) == 0) {
+                    loadsInFlight.remove(userId);
+                    generations.remove(userId);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private UserValuation load(Long userId, long generation) {
+        List<HoldingPositionDTO> holdings = holdingRepository.findPositionsByUserId(userId);
+
+        Set<String> unpricedAssets = new HashSet<>();
+        writeLock.lock();
+        try {
+            for (HoldingPositionDTO holding : holdings)
+                if (!appliedPrices.containsKey(holding.asset()))
+                    unpricedAssets.add(holding.asset());
+        } finally {
+            writeLock.unlock();
+        }
+        Map<String, PriceQuoteDTO> quotes = unpricedAssets.isEmpty() ? Map.of() : priceDataService.getAssetQuotes(unpricedAssets);
+
+        writeLock.lock();
+        try {
+            quotes.forEach((asset, quote) -> {
+                if (appliedPrices.putIfAbsent(asset, FixedPoint.of(quote.price())) == null)
+                    appliedPriceTimes.put(asset, quote.asOf());
+            });
+            UserValuation existing = valuations.get(userId);
+            if (existing != null)
+                return existing;
+
+            FixedPoint totalInvested = FixedPoint.ZERO;
+            FixedPoint totalValuation = FixedPoint.ZERO;
+            List<Position> positions = new ArrayList<>(holdings.size());
+            for (HoldingPositionDTO holding : holdings) {
+                FixedPoint units = FixedPoint.of(holding.units());
+                totalInvested = totalInvested.add(FixedPoint.of(holding.totalCostBasis()));
+                totalValuation = totalValuation.add(units.multiply(appliedPrices.get(holding.asset()), 2));
+                positions.add(new Position(holding.asset(), units));
+            }
+            UserValuation valuation = new UserValuation(totalInvested, totalValuation, oldestPriceTime(positions), System.currentTimeMillis());
+            // Holdings changed while loading: answer this read, but do not keep the result.
+            if (generations.getOrDefault(userId, 0L) != generation)
+                return valuation;
+
+            for (Position position : positions)
+                holdersByAsset.computeIfAbsent(position.asset(), asset -> new HashMap<>()).put(userId, position.units());
+            positionsByUser.put(userId, positions);
+            valuations.put(userId, valuation);
+            if (valuations.size() > maxUsers)
+                evictLeastRecentlyRead();
+            return valuation;
+        } finally {
+            // Quotes fetched for positions that were not kept, or that the provider returned unasked.
+            pruneUnheldPrices(quotes.keySet());
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock.
+    private void applyPrice(String asset, PriceQuoteDTO quote) {
+        // Prices are only kept for assets a loaded user holds; a later load fetches any other.
+        Map<Long, FixedPoint> holders = holdersByAsset.get(asset);
+        if (holders == null)
+            return;
+        FixedPoint price = FixedPoint.of(quote.price());
+        FixedPoint previousPrice = appliedPrices.put(asset, price);
+        appliedPriceTimes.put(asset, quote.asOf());
+        if (previousPrice == null)
+            return;
+        holders.forEach((userId, units) -> {
+            FixedPoint delta = units.multiply(price, 2).subtract(units.multiply(previousPrice, 2));
+            valuations.computeIfPresent(userId, (id, valuation) -> valuation.withValuation(
+                    valuation.totalValuation().add(delta), oldestPriceTime(positionsByUser.get(userId))));
+        });
+    }
+
+    /*
+        A valuation is only as fresh as its stalest price, so asOf is the oldest quote time across the
+        user's positions. Users with no positions are valued as of now. Caller holds writeLock.
+     */
+    private Instant oldestPriceTime(List<Position> positions) {
+        Instant oldest = null;
+        if (positions != null)
+            for (Position position : positions) {
+                Instant priceTime = appliedPriceTimes.get(position.asset());
+                if (priceTime != null && (oldest == null || priceTime.isBefore(oldest)))
+                    oldest = priceTime;
+            }
+        return oldest != null ? oldest : Instant.now();
+    }
+
+    private void invalidate(Long userId) {
+        writeLock.lock();
+        try {
+            if (loadsInFlight.containsKey(userId))
+                generations.merge(userId, 1L, Long::sum);
+            valuations.remove(userId);
+            List<Position> positions = positionsByUser.remove(userId);
+            if (positions == null)
+                return;
+            for (Position position : positions) {
+                Map<Long, FixedPoint> holders = holdersByAsset.get(position.asset());
+                if (holders == null)
+                    continue;
+                holders.remove(userId);
+                if (holders.isEmpty())
+                    holdersByAsset.remove(position.asset());
+            }
+            pruneUnheldPrices(positions.stream().map(Position::asset).toList());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Caller holds writeLock.
+    private void pruneUnheldPrices(Collection<String> assets) {
+        for (String asset : assets) {
+            if (holdersByAsset.containsKey(asset))
+                continue;
+            appliedPrices.remove(asset);
+            appliedPriceTimes.remove(asset);
+        }
+    }
+
+    // Caller holds writeLock. Drops the least recently read tenth of users in one pass.
+    private void evictLeastRecentlyRead() {
+        List<Map.Entry<Long, UserValuation>> entries = new ArrayList<>(valuations.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastReadAt()));
+        int toEvict = Math.max(1, entries.size() / 10);
+        for (int i = 0; i < toEvict; i++)
+            invalidate(entries.get(i).getKey());
+        logger.debug("Valuation engine evicted {} idle users", toEvict);
+    }
+}
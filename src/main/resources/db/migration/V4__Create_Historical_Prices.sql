@@ -0,0 +1,9 @@
+-- HISTORICAL PRICES
+-- Daily USD prices for past dates never change, so they are stored once on first fetch and never expired.
+CREATE TABLE IF NOT EXISTS historical_prices (
+                                                 asset VARCHAR(128) NOT NULL,
+                                                 price_date DATE NOT NULL,
+                                                 price_usd NUMERIC(38,8) NOT NULL CHECK (price_usd > 0),
+                                                 fetched_at TIMESTAMPTZ NOT NULL,
+                                                 CONSTRAINT historical_prices_pk PRIMARY KEY (asset, price_date)
+);
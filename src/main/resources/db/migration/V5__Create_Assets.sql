@@ -0,0 +1,8 @@
+-- ASSET UNIVERSE
+-- Every coin the price provider lists, refreshed daily, so symbol resolution and search never need an outbound call.
+CREATE TABLE IF NOT EXISTS assets (
+                                      id VARCHAR(128) PRIMARY KEY,
+                                      symbol VARCHAR(64) NOT NULL,
+                                      name VARCHAR(256) NOT NULL,
+                                      updated_at TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,14 @@
+-- ASSET PRICES
+-- Latest known USD price per asset, so portfolio snapshots can be revalued in SQL.
+CREATE TABLE IF NOT EXISTS asset_prices (
+                                            asset VARCHAR(255) PRIMARY KEY,
+                                            price_usd NUMERIC(38,8) NOT NULL CHECK (price_usd > 0),
+                                            as_of TIMESTAMPTZ NOT NULL
+);
+
+-- Seed a snapshot for every user that already holds assets; the valuation is filled in by the next price refresh.
+INSERT INTO portfolios (created_at, user_id, portfolio_type, total_invested, total_valuation, total_pnl, last_updated)
+SELECT now(), h.user_id, 'MAIN_PORTFOLIO', SUM(h.total_cost_basis), NULL, NULL, now()
+FROM holdings h
+GROUP BY h.user_id
+ON CONFLICT (portfolio_type, user_id) DO NOTHING;
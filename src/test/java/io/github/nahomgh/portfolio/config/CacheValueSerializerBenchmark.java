@@ -0,0 +1,67 @@
+package io.github.nahomgh.portfolio.config;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Compact codec vs the previous JSON serializer for a cached price quote. Not run by surefire; run
+    main() from the IDE (or the test classpath) after 'mvn test-compile'. The size difference is asserted
+    in CompactCacheValueSerializerTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheValueSerializerBenchmark {
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private CompactCacheValueSerializer compactSerializer;
+    private PriceQuoteDTO quote;
+    private byte[] jsonBytes;
+    private byte[] compactBytes;
+
+    @Setup
+    public void setup() {
+        jsonSerializer = new GenericJackson2JsonRedisSerializer()
+                .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+        compactSerializer = new CompactCacheValueSerializer(jsonSerializer);
+        quote = new PriceQuoteDTO(new BigDecimal("104235.12"), Instant.now());
+        jsonBytes = jsonSerializer.serialize(quote);
+        compactBytes = compactSerializer.serialize(quote);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(quote);
+    }
+
+    @Benchmark
+    public byte[] serializeCompact() {
+        return compactSerializer.serialize(quote);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object deserializeCompact() {
+        return compactSerializer.deserialize(compactBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CacheValueSerializerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
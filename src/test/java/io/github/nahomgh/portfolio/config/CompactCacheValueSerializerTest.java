@@ -0,0 +1,40 @@
+package io.github.nahomgh.portfolio.config;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import org.junit.jupiter.api.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+class CompactCacheValueSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer()
+            .configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+    private final CompactCacheValueSerializer serializer = new CompactCacheValueSerializer(jsonSerializer);
+
+    @Test
+    @DisplayName("Prices and quotes round-trip exactly, including scale, and are smaller than JSON")
+    void roundTripsPricesAndQuotes(){
+        PriceQuoteDTO quote = new PriceQuoteDTO(new BigDecimal("104235.12000000"), Instant.parse("2025-06-01T12:30:15.123456789Z"));
+        byte[] encoded = serializer.serialize(quote);
+
+        Assertions.assertEquals(quote, serializer.deserialize(encoded));
+        // A quote encodes to well under a quarter of its JSON form (26 bytes here, against over 100).
+        Assertions.assertTrue(encoded.length * 4 < jsonSerializer.serialize(quote).length);
+        Assertions.assertEquals(new BigDecimal("-0.000001"), serializer.deserialize(serializer.serialize(new BigDecimal("-0.000001"))));
+    }
+
+    @Test
+    @DisplayName("Other values fall back to JSON and entries written before the codec still read")
+    void readsFallbackAndLegacyValues(){
+        List<String> assets = new ArrayList<>(List.of("bitcoin", "ethereum"));
+        Assertions.assertEquals(assets, serializer.deserialize(serializer.serialize(assets)));
+
+        PriceQuoteDTO legacyQuote = new PriceQuoteDTO(new BigDecimal("2500.5"), Instant.parse("2025-06-01T00:00:00Z"));
+        Assertions.assertEquals(legacyQuote, serializer.deserialize(jsonSerializer.serialize(legacyQuote)));
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.AssetSummaryDTO;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Optional;
+
+class AssetIndexTest {
+
+    private final AssetIndex index = new AssetIndex(List.of(
+            new AssetSummaryDTO("ethereum-wormhole", "eth", "Ethereum (Wormhole)"),
+            new AssetSummaryDTO("bitcoin", "btc", "Bitcoin"),
+            new AssetSummaryDTO("ethereum", "eth", "Ethereum"),
+            new AssetSummaryDTO("ethena", "ena", "Ethena"),
+            new AssetSummaryDTO("solana", "sol", "Solana")));
+
+    @Test
+    @DisplayName("Ids, tickers and names resolve locally, preferring the canonical id for shared tickers")
+    void resolvesIdsSymbolsAndNames(){
+        Assertions.assertEquals(Optional.of("bitcoin"), index.resolve("bitcoin"));
+        Assertions.assertEquals(Optional.of("ethereum"), index.resolve("ETH"));
+        Assertions.assertEquals(Optional.of("solana"), index.resolve(" Solana "));
+        Assertions.assertEquals(Optional.empty(), index.resolve("notacoin"));
+    }
+
+    @Test
+    @DisplayName("Search returns exact symbol matches before symbol and name prefixes")
+    void searchOrdersExactBeforePrefix(){
+        List<String> ids = index.search("eth", 10).stream().map(AssetSummaryDTO::id).toList();
+        Assertions.assertEquals(List.of("ethereum", "ethereum-wormhole", "ethena"), ids);
+        Assertions.assertEquals(1, index.search("e", 1).size());
+        Assertions.assertTrue(index.search("  ", 10).isEmpty());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.nahomgh.portfolio.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Portfolio valuation loop (per-holding round(units * price, 2), summed, then each weight) on BigDecimal
+    vs FixedPoint. Setup fails the run if the two ever disagree on the generated positions. Not run by
+    surefire; run main() after 'mvn test-compile'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointBenchmark {
+
+    @Param({"1000"})
+    private int positions;
+
+    private BigDecimal[] units;
+    private BigDecimal[] prices;
+    private FixedPoint[] fixedUnits;
+    private FixedPoint[] fixedPrices;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        units = new BigDecimal[positions];
+        prices = new BigDecimal[positions];
+        fixedUnits = new FixedPoint[positions];
+        fixedPrices = new FixedPoint[positions];
+        for (int i = 0; i < positions; i++) {
+            units[i] = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000L), 8);
+            prices[i] = BigDecimal.valueOf(random.nextLong(1, 10_000_000_000_000L), 8);
+            fixedUnits[i] = FixedPoint.of(units[i]);
+            fixedPrices[i] = FixedPoint.of(prices[i]);
+        }
+        BigDecimal expected = bigDecimal();
+        BigDecimal actual = fixedPoint();
+        if (expected.compareTo(actual) != 0)
+            throw new IllegalStateException("FixedPoint " + actual + " != BigDecimal " + expected);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal[] valuations = new BigDecimal[positions];
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < positions; i++) {
+            valuations[i] = units[i].multiply(prices[i]).setScale(2, RoundingMode.HALF_UP);
+            total = total.add(valuations[i]);
+        }
+        BigDecimal weights = BigDecimal.ZERO;
+        for (BigDecimal valuation : valuations)
+            weights = weights.add(valuation.divide(total, 2, RoundingMode.HALF_UP));
+        return total.add(weights);
+    }
+
+    @Benchmark
+    public BigDecimal fixedPoint() {
+        FixedPoint[] valuations = new FixedPoint[positions];
+        FixedPoint total = FixedPoint.ZERO;
+        for (int i = 0; i < positions; i++) {
+            valuations[i] = fixedUnits[i].multiply(fixedPrices[i], 2);
+            total = total.add(valuations[i]);
+        }
+        FixedPoint weights = FixedPoint.ZERO;
+        for (FixedPoint valuation : valuations)
+            weights = weights.add(valuation.divide(total, 2));
+        return total.add(weights).toBigDecimal();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(FixedPointBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.nahomgh.portfolio.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+class FixedPointTest {
+
+    private static BigDecimal randomValue(Random random, int maxIntegerDigits){
+        long integerPart = (long) (random.nextDouble() * Math.pow(10, random.nextInt(maxIntegerDigits + 1)));
+        BigDecimal value = BigDecimal.valueOf(integerPart).add(BigDecimal.valueOf(random.nextInt(100_000_000), 8))
+                .setScale(random.nextInt(9), RoundingMode.DOWN);
+        return random.nextInt(5) == 0 ? value.negate() : value;
+    }
+
+    @Test
+    @DisplayName("Multiply and divide round exactly like BigDecimal HALF_UP")
+    void matchesBigDecimalRounding(){
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal a = randomValue(random, 7);
+            BigDecimal b = randomValue(random, 7);
+            int scale = random.nextInt(FixedPoint.SCALE + 1);
+
+            Assertions.assertEquals(0, a.multiply(b).setScale(scale, RoundingMode.HALF_UP)
+                    .compareTo(FixedPoint.of(a).multiply(FixedPoint.of(b), scale).toBigDecimal()), a + " * " + b);
+            if (b.signum() != 0)
+                Assertions.assertEquals(0, a.divide(b, scale, RoundingMode.HALF_UP)
+                        .compareTo(FixedPoint.of(a).divide(FixedPoint.of(b), scale).toBigDecimal()), a + " / " + b);
+            Assertions.assertEquals(0, a.add(b).compareTo(FixedPoint.of(a).add(FixedPoint.of(b)).toBigDecimal()));
+        }
+    }
+
+    @Test
+    @DisplayName("Values and results outside the long range fall back to BigDecimal")
+    void fallsBackOnOverflow(){
+        BigDecimal large = new BigDecimal("90000000000.12345678");
+        FixedPoint product = FixedPoint.of(large).multiply(FixedPoint.of(large), 2);
+        Assertions.assertFalse(product.isExact());
+        Assertions.assertEquals(large.multiply(large).setScale(2, RoundingMode.HALF_UP), product.toBigDecimal());
+
+        BigDecimal fine = new BigDecimal("0.000000000123");
+        Assertions.assertFalse(FixedPoint.of(fine).isExact());
+        Assertions.assertEquals(new BigDecimal("12300.00"), FixedPoint.of(fine).multiply(FixedPoint.of(new BigDecimal("100000000000000")), 2).toBigDecimal(2));
+
+        FixedPoint max = FixedPoint.ofUnscaled(Long.MAX_VALUE);
+        Assertions.assertEquals(0, max.toBigDecimal().add(BigDecimal.ONE).compareTo(max.add(FixedPoint.of(BigDecimal.ONE)).toBigDecimal()));
+    }
+}
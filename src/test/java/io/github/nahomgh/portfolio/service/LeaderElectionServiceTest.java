@@ -0,0 +1,75 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderElectionServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private LeaderElectionService leaderElection;
+
+    @BeforeEach
+    public void setup(){
+        leaderElection = new LeaderElectionService(redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(leaderElection, "leaseKey", "test:leader");
+        ReflectionTestUtils.setField(leaderElection, "leaseDuration", Duration.ofSeconds(30));
+        Mockito.lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("The node that sets the lease key leads and renews it, others follow")
+    void onlyLeaseHolderLeads(){
+        String nodeId = (String) ReflectionTestUtils.getField(leaderElection, "nodeId");
+        Mockito.when(valueOperations.setIfAbsent(ArgumentMatchers.eq("test:leader"), ArgumentMatchers.anyString(), ArgumentMatchers.any(Duration.class)))
+                .thenReturn(true, false);
+        leaderElection.maintainLease();
+        Assertions.assertTrue(leaderElection.isLeader());
+
+        // Varargs are matched one matcher per argument: (nodeId, lease in millis).
+        Mockito.when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), ArgumentMatchers.eq(List.of("test:leader")),
+                        ArgumentMatchers.eq(nodeId), ArgumentMatchers.anyString()))
+                .thenReturn(1L, 0L);
+        leaderElection.maintainLease();
+        Assertions.assertTrue(leaderElection.isLeader());
+        // Kept through the renewal itself, not by re-acquiring or failing open.
+        Mockito.verify(valueOperations, Mockito.times(1)).setIfAbsent(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any(Duration.class));
+
+        // Lease taken over by another node: the renewal script no longer matches and the key is held.
+        leaderElection.maintainLease();
+        Assertions.assertFalse(leaderElection.isLeader());
+        Mockito.verify(redisTemplate, Mockito.times(2)).execute(ArgumentMatchers.<RedisScript<Long>>any(), ArgumentMatchers.eq(List.of("test:leader")),
+                ArgumentMatchers.eq(nodeId), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @DisplayName("Every node runs the jobs while Redis is unreachable")
+    void failsOpenWhenRedisUnavailable(){
+        Mockito.when(valueOperations.setIfAbsent(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any(Duration.class)))
+                .thenThrow(new RedisConnectionFailureException("connection refused"))
+                .thenReturn(false);
+        leaderElection.maintainLease();
+        Assertions.assertTrue(leaderElection.isLeader());
+
+        leaderElection.maintainLease();
+        Assertions.assertFalse(leaderElection.isLeader());
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.nahomgh.portfolio.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+class PortfolioRevaluationServiceTest {
+
+    private static final Map<String, FixedPoint> PRICES = Map.of(
+            "bitcoin", FixedPoint.of(new BigDecimal("104235.12")),
+            "ethereum", FixedPoint.of(new BigDecimal("2000.005")));
+
+    @Test
+    @DisplayName("Users are valued with per-holding rounding, as in the portfolio view")
+    void valuesUserWithPerHoldingRounding(){
+        PortfolioRevaluationService.UserTotals totals = PortfolioRevaluationService.value(
+                new PortfolioRevaluationService.UserHoldings(1L, List.of(
+                        new PortfolioRevaluationService.HoldingRow("bitcoin", new BigDecimal("0.12345678"), new BigDecimal("12000.00000000")),
+                        new PortfolioRevaluationService.HoldingRow("ethereum", new BigDecimal("1"), new BigDecimal("1500.00000000")))),
+                PRICES);
+
+        // 12868.5324... rounds to 12868.53 and 2000.005 to 2000.01.
+        Assertions.assertEquals(new BigDecimal("14868.54"), totals.totalValuation());
+        Assertions.assertEquals(0, new BigDecimal("13500").compareTo(totals.totalInvested()));
+    }
+
+    @Test
+    @DisplayName("A user holding an unpriced asset keeps invested but gets no valuation")
+    void leavesValuationEmptyWithoutPrice(){
+        PortfolioRevaluationService.UserTotals totals = PortfolioRevaluationService.value(
+                new PortfolioRevaluationService.UserHoldings(2L, List.of(
+                        new PortfolioRevaluationService.HoldingRow("bitcoin", BigDecimal.ONE, new BigDecimal("90000")),
+                        new PortfolioRevaluationService.HoldingRow("delisted", BigDecimal.TEN, new BigDecimal("10")))),
+                PRICES);
+
+        Assertions.assertNull(totals.totalValuation());
+        Assertions.assertEquals(0, new BigDecimal("90010").compareTo(totals.totalInvested()));
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+class PortfolioSnapshotServiceTest {
+
+    @Test
+    @DisplayName("Prices that round to zero at the column scale are left out of the price upsert")
+    void skipsPricesBelowColumnScale(){
+        Instant asOf = Instant.now();
+        Map<String, PriceQuoteDTO> storable = PortfolioSnapshotService.storableQuotes(Map.of(
+                "bitcoin", new PriceQuoteDTO(new BigDecimal("104235.12"), asOf),
+                "dust-coin", new PriceQuoteDTO(new BigDecimal("0.000000004"), asOf),
+                "tiny-coin", new PriceQuoteDTO(new BigDecimal("0.000000005"), asOf)));
+
+        Assertions.assertEquals(2, storable.size());
+        Assertions.assertFalse(storable.containsKey("dust-coin"));
+        Assertions.assertEquals(new BigDecimal("0.00000001"), storable.get("tiny-coin").price());
+        Assertions.assertEquals(new BigDecimal("104235.12000000"), storable.get("bitcoin").price());
+    }
+}
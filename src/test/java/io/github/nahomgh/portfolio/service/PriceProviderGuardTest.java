@@ -0,0 +1,48 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.exceptions.PriceProviderUnavailableException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class PriceProviderGuardTest {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .recordExceptions(ResourceAccessException.class)
+            .build());
+    private final PriceProviderGuard guard = new PriceProviderGuard(circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+
+    @Test
+    @DisplayName("Repeated provider timeouts open the breaker and later calls fail fast without reaching the provider")
+    void opensAfterFailuresAndFailsFast(){
+        AtomicInteger providerCalls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+                providerCalls.incrementAndGet();
+                throw new ResourceAccessException("Read timed out");
+            }));
+        }
+        Assertions.assertThrows(PriceProviderUnavailableException.class, () -> guard.call(providerCalls::incrementAndGet));
+        Assertions.assertEquals(4, providerCalls.get());
+    }
+
+    @Test
+    @DisplayName("Client errors such as unknown assets do not count towards opening the breaker")
+    void ignoresClientErrors(){
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+        Assertions.assertEquals("ok", guard.call(() -> "ok"));
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.repository.HoldingRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class PriceRefreshPlannerTest {
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private PriceRefreshPlanner refreshPlanner;
+
+    @BeforeEach
+    public void setup(){
+        refreshPlanner = new PriceRefreshPlanner(holdingRepository, redisTemplate);
+        ReflectionTestUtils.setField(refreshPlanner, "hotInterval", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(refreshPlanner, "warmInterval", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(refreshPlanner, "coldInterval", Duration.ofMinutes(4));
+        ReflectionTestUtils.setField(refreshPlanner, "demandWindow", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(refreshPlanner, "hotThreshold", 5.0);
+        ReflectionTestUtils.setField(refreshPlanner, "demandKey", "test:demand");
+        Mockito.when(holdingRepository.findDistinctAssets()).thenReturn(List.of("bitcoin"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubSharedDemand(Object result){
+        var stubbing = Mockito.when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List>>any(),
+                ArgumentMatchers.eq(List.of("test:demand:requests", "test:demand:last-seen")), ArgumentMatchers.anyString()));
+        if (result instanceof RuntimeException e)
+            stubbing.thenThrow(e);
+        else
+            stubbing.thenReturn((List) result);
+    }
+
+    @Test
+    @DisplayName("Assets requested only through other nodes are planned from the shared demand")
+    void plansDemandRecordedByOtherNodes(){
+        String requestedAt = String.valueOf(Instant.now().toEpochMilli());
+        stubSharedDemand(List.of(List.of("solana", "7"), List.of("solana", requestedAt)));
+
+        List<String> dueAssets = refreshPlanner.planRefresh();
+
+        Assertions.assertTrue(dueAssets.containsAll(List.of("bitcoin", "solana")));
+        refreshPlanner.markRefreshed(dueAssets, Instant.now().minusSeconds(130));
+        stubSharedDemand(List.of(List.of(), List.of("solana", requestedAt)));
+        // Solana was requested within the window, so it is warm (due after 2m); held-only bitcoin is cold (4m).
+        Assertions.assertEquals(List.of("solana"), refreshPlanner.planRefresh());
+    }
+
+    @Test
+    @DisplayName("Without Redis the node plans from its own demand")
+    void fallsBackToLocalDemand(){
+        stubSharedDemand(new RedisConnectionFailureException("connection refused"));
+        refreshPlanner.recordDemand(List.of("ethereum"));
+
+        Assertions.assertTrue(refreshPlanner.planRefresh().containsAll(List.of("bitcoin", "ethereum")));
+    }
+}
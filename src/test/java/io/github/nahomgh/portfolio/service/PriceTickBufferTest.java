@@ -0,0 +1,48 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.PriceTickDTO;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+class PriceTickBufferTest {
+
+    private static final long MINUTE = 60_000;
+
+    @Test
+    @DisplayName("Oldest ticks are overwritten once the buffer is full")
+    void wrapsAroundWhenFull(){
+        PriceTickBuffer buffer = new PriceTickBuffer(3, MINUTE);
+        for (int i = 0; i < 5; i++)
+            buffer.record(i * MINUTE, 100 + i);
+
+        List<PriceTickDTO> ticks = buffer.ticksSince(0);
+        Assertions.assertEquals(3, buffer.size());
+        Assertions.assertEquals(List.of(102.0, 103.0, 104.0), ticks.stream().map(PriceTickDTO::price).toList());
+        Assertions.assertEquals(4 * MINUTE, ticks.get(2).timestamp().toEpochMilli());
+    }
+
+    @Test
+    @DisplayName("Ticks closer than the minimum spacing replace the latest tick")
+    void closeTicksReplaceLatest(){
+        PriceTickBuffer buffer = new PriceTickBuffer(10, MINUTE);
+        buffer.record(0, 100);
+        buffer.record(10_000, 101);
+        buffer.record(MINUTE + 10_000, 102);
+
+        List<PriceTickDTO> ticks = buffer.ticksSince(0);
+        Assertions.assertEquals(List.of(101.0, 102.0), ticks.stream().map(PriceTickDTO::price).toList());
+    }
+
+    @Test
+    @DisplayName("Only ticks inside the requested window are returned and out-of-order ticks are ignored")
+    void filtersByWindow(){
+        PriceTickBuffer buffer = new PriceTickBuffer(10, MINUTE);
+        buffer.record(0, 100);
+        buffer.record(MINUTE, 101);
+        buffer.record(2 * MINUTE, 102);
+        buffer.record(MINUTE / 2, 99);
+
+        Assertions.assertEquals(List.of(101.0, 102.0), buffer.ticksSince(MINUTE).stream().map(PriceTickDTO::price).toList());
+    }
+}
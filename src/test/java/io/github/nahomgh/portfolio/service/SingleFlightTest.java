@@ -0,0 +1,92 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, BigDecimal> singleFlight;
+
+    @BeforeEach
+    public void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("prices", meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers for the same key share a single load")
+    void concurrentCallersShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            Future<BigDecimal> first = executor.submit(() -> singleFlight.execute("bitcoin", () -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                awaitQuietly(releaseLoader);
+                return BigDecimal.valueOf(100_000);
+            }));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+
+            List<Future<BigDecimal>> waiting = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                waiting.add(executor.submit(() -> singleFlight.execute("bitcoin", () -> {
+                    loads.incrementAndGet();
+                    return BigDecimal.ONE;
+                })));
+            }
+            while (meterRegistry.get("singleflight.collapsed").counter().count() < callers - 1)
+                Thread.onSpinWait();
+            releaseLoader.countDown();
+
+            Assertions.assertEquals(0, first.get(5, TimeUnit.SECONDS).compareTo(BigDecimal.valueOf(100_000)));
+            for (Future<BigDecimal> result : waiting)
+                Assertions.assertEquals(0, result.get(5, TimeUnit.SECONDS).compareTo(BigDecimal.valueOf(100_000)));
+            Assertions.assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Failures are propagated and the key is released for the next caller")
+    void failedLoadIsNotRetained(){
+        Assertions.assertThrows(IllegalStateException.class, () -> singleFlight.execute("bitcoin", () -> {
+            throw new IllegalStateException("provider down");
+        }));
+        Assertions.assertEquals(0, singleFlight.execute("bitcoin", () -> BigDecimal.TEN).compareTo(BigDecimal.TEN));
+    }
+
+    @Test
+    @DisplayName("Batch loads only pass keys that are not already in flight")
+    void batchLoadFetchesAllKeysInOneCall(){
+        List<Set<String>> batches = new ArrayList<>();
+        Map<String, BigDecimal> prices = singleFlight.executeAll(List.of("bitcoin", "ethereum", "bitcoin"), keys -> {
+            batches.add(Set.copyOf(keys));
+            Map<String, BigDecimal> loaded = new HashMap<>();
+            keys.forEach(key -> loaded.put(key, BigDecimal.ONE));
+            return loaded;
+        });
+
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(Set.of("bitcoin", "ethereum"), batches.get(0));
+        Assertions.assertEquals(Set.of("bitcoin", "ethereum"), prices.keySet());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch){
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.AssetDTO;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class TopAssetTickersTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    private TopAssetTickers topAssetTickers;
+
+    @BeforeEach
+    public void setup(){
+        topAssetTickers = new TopAssetTickers(redisTemplate);
+        ReflectionTestUtils.setField(topAssetTickers, "tickersKey", "test:tickers");
+        Mockito.when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+    }
+
+    @Test
+    @DisplayName("The highest ranked asset keeps a shared ticker and the map is swapped into Redis in one step")
+    void publishesRankedTickers(){
+        topAssetTickers.publish(List.of(
+                new AssetDTO("ethereum", "eth", new BigDecimal("2000")),
+                new AssetDTO("bridged-ether", "eth", new BigDecimal("1999"))));
+
+        Assertions.assertEquals(Optional.of("ethereum"), topAssetTickers.resolve(" eth "));
+        Mockito.verify(hashOperations).putAll("test:tickers:staging", Map.of("ETH", "ethereum"));
+        Mockito.verify(redisTemplate).rename("test:tickers:staging", "test:tickers");
+    }
+
+    @Test
+    @DisplayName("Nodes load the shared map and keep their copy while Redis is unreachable")
+    void reloadsSharedTickers(){
+        Mockito.when(hashOperations.entries("test:tickers"))
+                .thenReturn(Map.of("ETH", "ethereum"))
+                .thenThrow(new RedisConnectionFailureException("Redis down"));
+
+        Assertions.assertTrue(topAssetTickers.reload());
+        Assertions.assertFalse(topAssetTickers.reload());
+        Assertions.assertEquals(Optional.of("ethereum"), topAssetTickers.resolve("ETH"));
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.exceptions.InputValidationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+
+class TransactionCursorTest {
+
+    @Test
+    @DisplayName("A cursor round-trips to the same keyset position and direction")
+    void roundTrips(){
+        TransactionCursor cursor = new TransactionCursor(Sort.Direction.DESC, Instant.parse("2025-03-01T10:15:30.123456Z"), 4821L);
+
+        TransactionCursor decoded = TransactionCursor.decode(cursor.encode());
+
+        Assertions.assertEquals(cursor, decoded);
+        KeysetScrollPosition position = decoded.toScrollPosition();
+        Assertions.assertEquals(Instant.parse("2025-03-01T10:15:30.123456Z"), position.getKeys().get("transactionTimestamp"));
+        Assertions.assertEquals(4821L, position.getKeys().get("id"));
+    }
+
+    @Test
+    @DisplayName("Tampered or foreign tokens are rejected as invalid input")
+    void rejectsMalformedTokens(){
+        Assertions.assertThrows(InputValidationException.class, () -> TransactionCursor.decode("not a cursor"));
+        Assertions.assertThrows(InputValidationException.class, () -> TransactionCursor.decode("eHx5fHo"));
+    }
+}
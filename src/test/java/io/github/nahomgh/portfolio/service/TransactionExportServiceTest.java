@@ -0,0 +1,68 @@
+package io.github.nahomgh.portfolio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.nahomgh.portfolio.dto.TransactionDTO;
+import io.github.nahomgh.portfolio.entity.TransactionType;
+import io.github.nahomgh.portfolio.repository.TransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private TransactionExportService transactionExportService;
+
+    @BeforeEach
+    public void setup(){
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        transactionExportService = new TransactionExportService(transactionRepository, objectMapper);
+        Mockito.when(transactionRepository.streamByUserId(1L)).thenReturn(Stream.of(
+                new TransactionDTO("bitcoin", TransactionType.BUY, new BigDecimal("0.50000000"),
+                        new BigDecimal("45000.00000000"), new BigDecimal("90000.00000000"), Instant.parse("2025-01-02T03:04:05Z")),
+                new TransactionDTO("=evil,coin", TransactionType.SELL, new BigDecimal("1E+1"),
+                        new BigDecimal("20"), new BigDecimal("2"), Instant.parse("2025-01-03T00:00:00Z"))));
+    }
+
+    @Test
+    @DisplayName("CSV export writes a header, plain numbers and escaped fields, gzipped when asked")
+    void exportsGzippedCsv() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transactionExportService.export(1L, TransactionExportService.ExportFormat.CSV, true, output);
+
+        String csv = new String(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        Assertions.assertEquals("""
+                asset,transaction_type,units,market_value,price_per_unit,transaction_date
+                bitcoin,BUY,0.50000000,45000.00000000,90000.00000000,2025-01-02T03:04:05Z
+                "'=evil,coin",SELL,10,20,2,2025-01-03T00:00:00Z
+                """, csv);
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one JSON object per line")
+    void exportsNdjson() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        transactionExportService.export(1L, TransactionExportService.ExportFormat.NDJSON, false, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].startsWith("{\"asset\":\"bitcoin\",\"transactionType\":\"BUY\""));
+        Assertions.assertTrue(lines[1].contains("\"transactionDate\":\"2025-01-03T00:00:00Z\""));
+    }
+}
@@ -20,6 +20,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -42,6 +44,12 @@ class TransactionServiceTest {
     @Mock
     private HoldingRepository holdingRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProcessTransactionsService processTransactions;
 
@@ -63,7 +71,8 @@ class TransactionServiceTest {
                 transactionRepository,
                 priceDataService,
                 userRepository,
-                processTransactions
+                processTransactions,
+                transactionManager
         );
 
         //
@@ -124,7 +133,7 @@ class TransactionServiceTest {
 
         InOrder inOrder = Mockito.inOrder(transactionRepository,holdingRepository);
 
-        inOrder.verify(transactionRepository).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
+        inOrder.verify(transactionRepository, Mockito.times(2)).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
         inOrder.verify(holdingRepository, Mockito.atLeastOnce()).findByAssetAndUser_Id("BTC", 1L);
         inOrder.verify(holdingRepository).save(Mockito.any(Holding.class));
         inOrder.verify(transactionRepository).save(Mockito.any(Transaction.class));
@@ -161,7 +170,7 @@ class TransactionServiceTest {
 
         InOrder inOrder = Mockito.inOrder(transactionRepository,holdingRepository);
 
-        inOrder.verify(transactionRepository).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
+        inOrder.verify(transactionRepository, Mockito.times(2)).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
         inOrder.verify(holdingRepository, Mockito.atLeastOnce()).findByAssetAndUser_Id("BTC", 1L);
         inOrder.verify(holdingRepository).save(Mockito.any(Holding.class));
         inOrder.verify(transactionRepository).save(Mockito.any(Transaction.class));
@@ -186,6 +195,8 @@ class TransactionServiceTest {
         Mockito.verify(transactionRepository, Mockito.never()).save(Mockito.any());
 
         Mockito.verify(transactionRepository, Mockito.times(1)).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
+        // A retry is rejected before any provider call.
+        Mockito.verifyNoInteractions(priceDataService);
 
     }
 
@@ -209,7 +220,8 @@ class TransactionServiceTest {
         Mockito.verify(transactionRepository, Mockito.never()).save(Mockito.any());
 
 
-        Mockito.verify(transactionRepository, Mockito.times(1)).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
+        // Checked once before the price lookup and again inside the transaction.
+        Mockito.verify(transactionRepository, Mockito.times(2)).findTransactionByUserIdAndClientIdempotencyKey(1L, idempotencyKey);
         Mockito.verify(priceDataService, Mockito.times(1)).resolveAssetSymbol(sellTransactionRequest.asset());
         Mockito.verify(holdingRepository, Mockito.atLeastOnce()).findByAssetAndUser_Id(sellTransactionRequest.asset(),testUser.getId());
     }
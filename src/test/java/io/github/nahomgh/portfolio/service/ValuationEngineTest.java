@@ -0,0 +1,118 @@
+package io.github.nahomgh.portfolio.service;
+
+import io.github.nahomgh.portfolio.dto.HoldingPositionDTO;
+import io.github.nahomgh.portfolio.dto.PortfolioSummaryDTO;
+import io.github.nahomgh.portfolio.dto.PriceQuoteDTO;
+import io.github.nahomgh.portfolio.event.HoldingsChangedEvent;
+import io.github.nahomgh.portfolio.event.PricesUpdatedEvent;
+import io.github.nahomgh.portfolio.repository.HoldingRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class ValuationEngineTest {
+
+    @Mock
+    private HoldingRepository holdingRepository;
+
+    @Mock
+    private PriceDataService priceDataService;
+
+    private ValuationEngine valuationEngine;
+
+    @BeforeEach
+    public void setup(){
+        valuationEngine = new ValuationEngine(holdingRepository, priceDataService);
+        Mockito.lenient().when(priceDataService.getAssetQuotes(ArgumentMatchers.anyCollection())).thenReturn(Map.of(
+                "bitcoin", quote("100000"),
+                "ethereum", quote("2000")));
+    }
+
+    private static HoldingPositionDTO position(String asset, String units, String pricePerUnit){
+        return new HoldingPositionDTO(asset, new BigDecimal(units), new BigDecimal(units).multiply(new BigDecimal(pricePerUnit)));
+    }
+
+    private static PriceQuoteDTO quote(String price){
+        return new PriceQuoteDTO(new BigDecimal(price), Instant.now());
+    }
+
+    @Test
+    @DisplayName("Price updates adjust only the holders of the changed asset")
+    void appliesPriceDeltasToHolders(){
+        Mockito.when(holdingRepository.findPositionsByUserId(1L)).thenReturn(List.of(
+                position("bitcoin", "0.5", "90000"),
+                position("ethereum", "2", "2500")));
+        Mockito.when(holdingRepository.findPositionsByUserId(2L)).thenReturn(List.of(
+                position("ethereum", "10", "1000")));
+
+        Assertions.assertEquals(new BigDecimal("54000.00"), valuationEngine.getSummary(1L).totalValuation());
+        Assertions.assertEquals(new BigDecimal("20000.00"), valuationEngine.getSummary(2L).totalValuation());
+
+        valuationEngine.onPricesUpdated(new PricesUpdatedEvent(Map.of("bitcoin", quote("110000"))));
+
+        PortfolioSummaryDTO aliceSummary = valuationEngine.getSummary(1L);
+        Assertions.assertEquals(new BigDecimal("59000.00"), aliceSummary.totalValuation());
+        Assertions.assertEquals(0, new BigDecimal("9000").compareTo(aliceSummary.currentPnl()));
+        Assertions.assertEquals(new BigDecimal("20000.00"), valuationEngine.getSummary(2L).totalValuation());
+        Mockito.verify(holdingRepository, Mockito.times(1)).findPositionsByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("A holdings change drops the user so the next read reloads their positions")
+    void reloadsAfterHoldingsChange(){
+        Mockito.when(holdingRepository.findPositionsByUserId(1L))
+                .thenReturn(List.of(position("bitcoin", "1", "90000")))
+                .thenReturn(List.of(position("bitcoin", "2", "90000")));
+
+        Assertions.assertEquals(new BigDecimal("100000.00"), valuationEngine.getSummary(1L).totalValuation());
+        valuationEngine.onHoldingsChanged(new HoldingsChangedEvent(1L, "bitcoin"));
+        Assertions.assertEquals(0, valuationEngine.loadedUsers());
+
+        // Nobody loaded holds bitcoin any more, so the reload takes the price from the price service.
+        Mockito.when(priceDataService.getAssetQuotes(ArgumentMatchers.anyCollection())).thenReturn(Map.of("bitcoin", quote("105000")));
+        valuationEngine.onPricesUpdated(new PricesUpdatedEvent(Map.of("bitcoin", quote("105000"))));
+        Assertions.assertEquals(new BigDecimal("210000.00"), valuationEngine.getSummary(1L).totalValuation());
+    }
+
+    @Test
+    @DisplayName("Prices are only kept for assets a loaded user holds")
+    void dropsPricesOfUnheldAssets(){
+        Mockito.when(holdingRepository.findPositionsByUserId(1L)).thenReturn(List.of(position("bitcoin", "1", "90000")));
+
+        valuationEngine.getSummary(1L);
+        valuationEngine.onPricesUpdated(new PricesUpdatedEvent(Map.of("solana", quote("150"))));
+        Assertions.assertEquals(1, valuationEngine.pricedAssets());
+
+        valuationEngine.onHoldingsChanged(new HoldingsChangedEvent(1L, "bitcoin"));
+        Assertions.assertEquals(0, valuationEngine.pricedAssets());
+    }
+
+    @Test
+    @DisplayName("A valuation is dated by the oldest price it was computed from")
+    void datesValuationByOldestPrice(){
+        Instant bitcoinAsOf = Instant.parse("2026-01-01T10:00:00Z");
+        Instant ethereumAsOf = Instant.parse("2026-01-01T10:05:00Z");
+        Mockito.when(priceDataService.getAssetQuotes(ArgumentMatchers.anyCollection())).thenReturn(Map.of(
+                "bitcoin", new PriceQuoteDTO(new BigDecimal("100000"), bitcoinAsOf),
+                "ethereum", new PriceQuoteDTO(new BigDecimal("2000"), ethereumAsOf)));
+        Mockito.when(holdingRepository.findPositionsByUserId(1L)).thenReturn(List.of(
+                position("bitcoin", "0.5", "90000"),
+                position("ethereum", "2", "2500")));
+
+        Assertions.assertEquals(bitcoinAsOf, valuationEngine.getSummary(1L).lastUpdated());
+
+        Instant bitcoinUpdatedAt = Instant.parse("2026-01-01T10:10:00Z");
+        valuationEngine.onPricesUpdated(new PricesUpdatedEvent(Map.of(
+                "bitcoin", new PriceQuoteDTO(new BigDecimal("110000"), bitcoinUpdatedAt))));
+        Assertions.assertEquals(ethereumAsOf, valuationEngine.getSummary(1L).lastUpdated());
+    }
+}